@@ -0,0 +1,38 @@
+package ru.practicum.shareit.benchmark;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItApp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Запуск приложения для бенчмарков: профиль test (H2 в памяти) без вывода SQL
+ * и трассировки транзакций. Настройки передаются как аргументы
+ * командной строки, чтобы перекрыть application.yaml.
+ */
+@UtilityClass
+public class BenchmarkApp {
+    private static final String PROFILES = System.getProperty("shareit.bench.profiles", "test");
+
+    public static ConfigurableApplicationContext start(WebApplicationType webApplicationType,
+                                                       Map<String, String> properties) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.jpa.show-sql=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.orm.jpa=WARN",
+                "--logging.level.org.springframework.transaction.interceptor=WARN",
+                "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN"));
+        properties.forEach((name, value) -> args.add("--" + name + "=" + value));
+
+        return new SpringApplicationBuilder(ShareItApp.class)
+                .web(webApplicationType)
+                .profiles(PROFILES.isBlank() ? new String[0] : PROFILES.split(","))
+                .run(args.toArray(String[]::new));
+    }
+}
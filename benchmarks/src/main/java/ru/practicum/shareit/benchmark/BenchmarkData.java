@@ -0,0 +1,61 @@
+package ru.practicum.shareit.benchmark;
+
+import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatusType;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Детерминированные тестовые данные для бенчмарков.
+ */
+@UtilityClass
+public class BenchmarkData {
+    public static final List<String> WORDS = List.of(
+            "drill", "ladder", "tent", "bicycle", "kayak", "camera", "projector", "saw",
+            "hammer", "sleeping bag", "grill", "stroller", "snowboard", "guitar", "speaker", "vacuum");
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    public static String itemName(int i) {
+        return WORDS.get(i % WORDS.size()) + " model " + i;
+    }
+
+    public static String itemDescription(int i) {
+        return "Well kept " + WORDS.get((i * 7 + 3) % WORDS.size()) + " for rent, lot " + i;
+    }
+
+    static User user(long id) {
+        return User.builder()
+                .id(id)
+                .name("User " + id)
+                .email("user" + id + "@mail.ru")
+                .build();
+    }
+
+    static Item item(long id, User owner) {
+        int i = (int) id;
+        return Item.builder()
+                .id(id)
+                .name(itemName(i))
+                .description(itemDescription(i))
+                .isAvailable(true)
+                .owner(owner)
+                .build();
+    }
+
+    static Booking booking(long id, Item item, User booker) {
+        LocalDateTime start = BASE.plusHours(id);
+        return Booking.builder()
+                .id(id)
+                .start(start)
+                .end(start.plusDays(1))
+                .status(BookingStatusType.values()[(int) (id % BookingStatusType.values().length)])
+                .item(item)
+                .booker(booker)
+                .build();
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.statemachine.StateMachine;
+import org.springframework.statemachine.config.StateMachineFactory;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingDto;
+import ru.practicum.shareit.booking.model.BookingEvent;
+import ru.practicum.shareit.booking.model.BookingMapper;
+import ru.practicum.shareit.booking.model.BookingStatusType;
+import ru.practicum.shareit.booking.statemachine.BookingStateMachineConfig;
+import ru.practicum.shareit.booking.statemachine.BookingTransitionTable;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Смена статуса бронирования: прежний путь через StateMachineFactory,
+ * {@link BookingTransitionTable} и то, что делает BookingService.changeStatus
+ * вместе с маппингом ответа при подтверждении.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingTransitionBenchmark {
+    private AnnotationConfigApplicationContext context;
+    private StateMachineFactory<BookingStatusType, BookingEvent> stateMachineFactory;
+    private BookingTransitionTable transitionTable;
+    private Booking booking;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(BookingStateMachineConfig.class);
+        stateMachineFactory = context.getBean(StateMachineFactory.class);
+        transitionTable = new BookingTransitionTable(stateMachineFactory);
+        User owner = BenchmarkData.user(1L);
+        booking = BenchmarkData.booking(1L, BenchmarkData.item(1L, owner), BenchmarkData.user(2L));
+        booking.setStatus(BookingStatusType.WAITING);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BookingStatusType stateMachineFactory() {
+        StateMachine<BookingStatusType, BookingEvent> sm = stateMachineFactory.getStateMachine(booking.getId().toString());
+        sm.start();
+        sm.getExtendedState().getVariables().put("booking", booking);
+        sm.sendEvent(BookingEvent.APPROVE);
+        BookingStatusType status = sm.getState().getId();
+        sm.stop();
+        return status;
+    }
+
+    @Benchmark
+    public BookingStatusType transitionTable() {
+        return transitionTable.next(booking.getStatus(), BookingEvent.APPROVE);
+    }
+
+    @Benchmark
+    public BookingDto approve() {
+        booking.setStatus(BookingStatusType.WAITING);
+        booking.setStatus(transitionTable.next(booking.getStatus(), BookingEvent.APPROVE));
+        return BookingMapper.toBookingDto(booking);
+    }
+}
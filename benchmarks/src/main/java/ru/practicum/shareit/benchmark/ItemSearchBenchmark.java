@@ -0,0 +1,97 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск вещей через ItemService.searchItems на каталоге заданного размера в H2.
+ * hotQuery повторяет один запрос и попадает в кэш результатов, coldQuery
+ * перебирает больше различных запросов, чем вмещает кэш, и каждый раз идёт в индекс.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemSearchBenchmark {
+    private static final int SEED_CHUNK = 1000;
+    private static final int PAGE_SIZE = 20;
+    private static final int COLD_QUERIES = 4096;
+    private static final int SEARCH_CACHE_SIZE = 1000;
+
+    @Param({"1000", "10000", "100000"})
+    private int catalogSize;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private String[] coldQueries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApp.start(WebApplicationType.NONE, Map.of(
+                "spring.datasource.url", "jdbc:h2:mem:search-" + catalogSize,
+                "shareit.search.cache.max-entries", String.valueOf(SEARCH_CACHE_SIZE)));
+        itemService = context.getBean(ItemService.class);
+        Long ownerId = context.getBean(UserService.class)
+                .createUser(UserDto.builder().name("Owner").email("owner@mail.ru").build())
+                .getId();
+
+        for (int from = 0; from < catalogSize; from += SEED_CHUNK) {
+            List<ItemDto> chunk = new ArrayList<>(SEED_CHUNK);
+            for (int i = from; i < Math.min(from + SEED_CHUNK, catalogSize); i++) {
+                chunk.add(ItemDto.builder()
+                        .name(BenchmarkData.itemName(i))
+                        .description(BenchmarkData.itemDescription(i))
+                        .isAvailable(true)
+                        .build());
+            }
+            itemService.createItems(chunk, ownerId);
+        }
+
+        coldQueries = new String[COLD_QUERIES];
+        for (int i = 0; i < COLD_QUERIES; i++) {
+            coldQueries[i] = "model " + i;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemDto> hotQuery() {
+        return itemService.searchItems("drill", 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<ItemDto> coldQuery() {
+        String query = coldQueries[next];
+        next = (next + 1) % COLD_QUERIES;
+        return itemService.searchItems(query, 0, PAGE_SIZE);
+    }
+}
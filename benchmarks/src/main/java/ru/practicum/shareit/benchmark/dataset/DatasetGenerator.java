@@ -0,0 +1,201 @@
+package ru.practicum.shareit.benchmark.dataset;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import ru.practicum.shareit.benchmark.Args;
+import ru.practicum.shareit.benchmark.BenchmarkData;
+import ru.practicum.shareit.booking.model.BookingStatusType;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.SplittableRandom;
+
+/**
+ * Заполняет пустую схему ShareIt (H2 или PostgreSQL) синтетическими данными пакетными
+ * вставками JDBC, минуя приложение. Владельцы вещей и популярность вещей в бронированиях
+ * и отзывах распределены по Zipf: первые id — самые активные. При одном seed набор
+ * воспроизводится; даты отсчитываются от момента генерации.
+ *
+ * <p>Пересечения бронирований одной вещи не исключаются: набор нужен для объёма, а не для
+ * проверки правил бронирования.
+ *
+ * <p>Запуск: {@code --url=jdbc:postgresql://localhost:5432/postgres?reWriteBatchedInserts=true
+ * --username=postgres --password=12345 --users=1000000 --items=5000000 --bookings=20000000
+ * --comments=5000000 --zipf=1.0 --seed=42}.
+ */
+@Slf4j
+public final class DatasetGenerator {
+    private static final int BATCH_SIZE = 1_000;
+    private static final int COMMIT_SIZE = 50_000;
+    // Шаг последовательностей в schema.sql и allocationSize сущностей
+    private static final int SEQUENCE_ALLOCATION = 50;
+    private static final int HOURS_IN_YEAR = 365 * 24;
+    private static final int MAX_BOOKING_HOURS = 72;
+
+    private final DataSource dataSource;
+    private final DatasetSpec spec;
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+
+    public DatasetGenerator(DataSource dataSource, DatasetSpec spec) {
+        this.dataSource = dataSource;
+        this.spec = spec;
+    }
+
+    public static void main(String[] args) throws SQLException {
+        Args arguments = new Args(args);
+        DataSource dataSource = new DriverManagerDataSource(
+                arguments.get("url", "jdbc:postgresql://localhost:5432/postgres?reWriteBatchedInserts=true"),
+                arguments.get("username", "postgres"),
+                arguments.get("password", "12345"));
+        new DatasetGenerator(dataSource, DatasetSpec.from(arguments)).generate();
+    }
+
+    public void generate() throws SQLException {
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+
+        long startedAt = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            requireEmpty(connection);
+            connection.setAutoCommit(false);
+
+            SplittableRandom random = new SplittableRandom(spec.seed());
+            ZipfDistribution popularUsers = new ZipfDistribution(spec.users(), spec.zipfExponent());
+            ZipfDistribution popularItems = new ZipfDistribution(spec.items(), spec.zipfExponent());
+
+            insertUsers(connection);
+            int[] owners = insertItems(connection, random, popularUsers);
+            insertBookings(connection, random, popularItems, owners);
+            insertComments(connection, random, popularItems);
+            restartSequences(connection);
+            connection.commit();
+        }
+        log.info("Набор данных {} создан за {} с", spec, (System.nanoTime() - startedAt) / 1_000_000_000);
+    }
+
+    private void insertUsers(Connection connection) throws SQLException {
+        insert(connection, "INSERT INTO users (id, name, email) VALUES (?, ?, ?)", spec.users(), (statement, id) -> {
+            statement.setLong(1, id);
+            statement.setString(2, "User " + id);
+            statement.setString(3, "user" + id + "@shareit.test");
+        });
+    }
+
+    // Возвращает владельца каждой вещи: owners[itemId - 1]
+    private int[] insertItems(Connection connection, SplittableRandom random, ZipfDistribution popularUsers)
+            throws SQLException {
+        int[] owners = new int[spec.items()];
+        insert(connection, "INSERT INTO items (id, name, description, available, owner_id) VALUES (?, ?, ?, ?, ?)",
+                spec.items(), (statement, id) -> {
+                    int owner = popularUsers.sample(random);
+                    owners[id - 1] = owner;
+                    statement.setLong(1, id);
+                    statement.setString(2, BenchmarkData.itemName(id));
+                    statement.setString(3, BenchmarkData.itemDescription(id));
+                    statement.setBoolean(4, random.nextInt(10) != 0);
+                    statement.setLong(5, owner);
+                });
+        return owners;
+    }
+
+    private void insertBookings(Connection connection, SplittableRandom random, ZipfDistribution popularItems,
+                                int[] owners) throws SQLException {
+        insert(connection, "INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", spec.bookings(), (statement, id) -> {
+                    int item = popularItems.sample(random);
+                    int booker = 1 + random.nextInt(spec.users());
+                    if (booker == owners[item - 1]) {
+                        booker = booker % spec.users() + 1;
+                    }
+                    LocalDateTime start = now.plusHours(random.nextInt(-HOURS_IN_YEAR, HOURS_IN_YEAR));
+                    LocalDateTime end = start.plusHours(1 + random.nextInt(MAX_BOOKING_HOURS));
+
+                    statement.setLong(1, id);
+                    statement.setTimestamp(2, Timestamp.valueOf(start));
+                    statement.setTimestamp(3, Timestamp.valueOf(end));
+                    statement.setLong(4, item);
+                    statement.setLong(5, booker);
+                    statement.setString(6, status(random, start, end).name());
+                });
+    }
+
+    private void insertComments(Connection connection, SplittableRandom random, ZipfDistribution popularItems)
+            throws SQLException {
+        insert(connection, "INSERT INTO comments (id, text, item_id, author_id, created) VALUES (?, ?, ?, ?, ?)",
+                spec.comments(), (statement, id) -> {
+                    statement.setLong(1, id);
+                    statement.setString(2, "Comment " + id + ": everything worked as described");
+                    statement.setLong(3, popularItems.sample(random));
+                    statement.setLong(4, 1 + random.nextInt(spec.users()));
+                    statement.setTimestamp(5, Timestamp.valueOf(now.minusMinutes(random.nextInt(HOURS_IN_YEAR * 60))));
+                });
+    }
+
+    private BookingStatusType status(SplittableRandom random, LocalDateTime start, LocalDateTime end) {
+        int roll = random.nextInt(10);
+        if (end.isBefore(now)) {
+            return roll < 8 ? BookingStatusType.APPROVED : roll < 9 ? BookingStatusType.REJECTED
+                    : BookingStatusType.CANCELLED;
+        }
+        if (start.isAfter(now)) {
+            return roll < 3 ? BookingStatusType.WAITING : BookingStatusType.APPROVED;
+        }
+        return BookingStatusType.APPROVED;
+    }
+
+    // Приложение выдаёт id пулами по SEQUENCE_ALLOCATION; новые пулы должны начинаться после вставленных id
+    private void restartSequences(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(restart("users_seq", spec.users()));
+            statement.execute(restart("items_seq", spec.items()));
+            statement.execute(restart("bookings_seq", spec.bookings()));
+            statement.execute(restart("comments_seq", spec.comments()));
+        }
+    }
+
+    private static String restart(String sequence, int maxId) {
+        return "ALTER SEQUENCE " + sequence + " RESTART WITH " + (maxId + SEQUENCE_ALLOCATION + 1);
+    }
+
+    private static void requireEmpty(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM users")) {
+            resultSet.next();
+            if (resultSet.getLong(1) > 0) {
+                throw new IllegalStateException("Генератор заполняет только пустую схему, а в users уже есть строки");
+            }
+        }
+    }
+
+    private static void insert(Connection connection, String sql, int rows, RowWriter writer) throws SQLException {
+        long startedAt = System.nanoTime();
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int id = 1; id <= rows; id++) {
+                writer.write(statement, id);
+                statement.addBatch();
+                if (id % BATCH_SIZE == 0) {
+                    statement.executeBatch();
+                }
+                if (id % COMMIT_SIZE == 0) {
+                    connection.commit();
+                }
+            }
+            statement.executeBatch();
+            connection.commit();
+        }
+        log.info("{} строк за {} мс: {}", rows, (System.nanoTime() - startedAt) / 1_000_000, sql);
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(PreparedStatement statement, int id) throws SQLException;
+    }
+}
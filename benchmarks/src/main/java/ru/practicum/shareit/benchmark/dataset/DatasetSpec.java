@@ -0,0 +1,28 @@
+package ru.practicum.shareit.benchmark.dataset;
+
+import ru.practicum.shareit.benchmark.Args;
+
+/**
+ * Объём и форма синтетического набора данных. Генератор выдаёт id подряд с единицы,
+ * а популярность по Zipf убывает с ростом id, поэтому нагрузочный клиент по той же
+ * спецификации выбирает те же «горячие» записи, не читая базу.
+ *
+ * @param zipfExponent показатель распределения популярности вещей и владельцев (0 — равномерно)
+ */
+public record DatasetSpec(int users, int items, int bookings, int comments, double zipfExponent, long seed) {
+    public DatasetSpec {
+        if (users < 2 || items < 1 || bookings < 0 || comments < 0 || zipfExponent < 0) {
+            throw new IllegalArgumentException("Нужно не меньше двух пользователей и одной вещи: " + this);
+        }
+    }
+
+    public static DatasetSpec from(Args args) {
+        return new DatasetSpec(
+                args.getInt("users", 10_000),
+                args.getInt("items", 50_000),
+                args.getInt("bookings", 200_000),
+                args.getInt("comments", 100_000),
+                args.getDouble("zipf", 1.0),
+                args.getLong("seed", 42));
+    }
+}
@@ -0,0 +1,141 @@
+package ru.practicum.shareit.benchmark.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+
+/**
+ * Нагрузка по замкнутому циклу: concurrency клиентов на виртуальных потоках
+ * отправляют запросы подряд, без пауз, в течение заданного времени.
+ * Ответ не из диапазона 2xx (в том числе 503 от лимита запросов) считается ошибкой.
+ * Клиент w берёт запросы из генератора с seed + w, так что при одном seed
+ * последовательности запросов повторяются.
+ */
+public class LoadDriver implements AutoCloseable {
+    public static final String TOTAL = "total";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final long seed;
+    private final ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(clients)
+            .build();
+
+    public LoadDriver(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Возвращает отчёты по каждому endpoint в алфавитном порядке и последним — сводный отчёт {@link #TOTAL}.
+     */
+    public List<LoadReport> run(Workload workload, int concurrency, Duration duration) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        long startedAt = System.nanoTime();
+
+        List<Future<Map<String, LatencyLog>>> workers = new ArrayList<>(concurrency);
+        for (int w = 0; w < concurrency; w++) {
+            SplittableRandom random = new SplittableRandom(seed + w);
+            workers.add(clients.submit(() -> {
+                Map<String, LatencyLog> logs = new HashMap<>();
+                while (System.nanoTime() < deadline) {
+                    Workload.Request request = workload.next(random);
+                    LatencyLog log = logs.computeIfAbsent(request.endpoint(), endpoint -> new LatencyLog());
+                    long sentAt = System.nanoTime();
+                    if (send(request.http())) {
+                        log.add(System.nanoTime() - sentAt);
+                    } else {
+                        log.errors++;
+                    }
+                }
+                return logs;
+            }));
+        }
+
+        Map<String, List<LatencyLog>> byEndpoint = new TreeMap<>();
+        for (Future<Map<String, LatencyLog>> worker : workers) {
+            try {
+                worker.get().forEach((endpoint, log) ->
+                        byEndpoint.computeIfAbsent(endpoint, e -> new ArrayList<>()).add(log));
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Клиент нагрузки завершился с ошибкой", e.getCause());
+            }
+        }
+
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+        List<LoadReport> reports = new ArrayList<>();
+        byEndpoint.forEach((endpoint, logs) -> reports.add(report(endpoint, logs, seconds)));
+        reports.add(report(TOTAL, byEndpoint.values().stream().flatMap(List::stream).toList(), seconds));
+        return reports;
+    }
+
+    public static HttpRequest get(String baseUrl, String path, Long userId) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .GET();
+        if (userId != null) {
+            builder.header("X-Sharer-User-Id", userId.toString());
+        }
+        return builder.build();
+    }
+
+    private static LoadReport report(String endpoint, List<LatencyLog> logs, double seconds) {
+        long[] latencies = logs.stream()
+                .flatMapToLong(LatencyLog::stream)
+                .toArray();
+        long errors = logs.stream()
+                .mapToLong(log -> log.errors)
+                .sum();
+        return LoadReport.of(endpoint, latencies, errors, seconds);
+    }
+
+    private boolean send(HttpRequest request) {
+        try {
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() / 100 == 2;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public void close() {
+        httpClient.close();
+        clients.close();
+    }
+
+    private static final class LatencyLog {
+        private long[] values = new long[1024];
+        private int size;
+        private long errors;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        LongStream stream() {
+            return Arrays.stream(values, 0, size);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.benchmark.load;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import ru.practicum.shareit.benchmark.Args;
+import ru.practicum.shareit.benchmark.BenchmarkApp;
+import ru.practicum.shareit.benchmark.dataset.DatasetGenerator;
+import ru.practicum.shareit.benchmark.dataset.DatasetSpec;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Прогон смешанной нагрузки {@link MixedWorkload} с отчётом по каждому endpoint.
+ *
+ * <p>Без --base-url создаёт H2 в памяти, заполняет её {@link DatasetGenerator} и поднимает
+ * приложение в этом же процессе. С --base-url нагружает уже запущенное приложение, базу которого
+ * заранее заполнил DatasetGenerator с теми же --users/--items/--zipf.
+ *
+ * <p>Аргументы: --clients=200 --duration=60 --warmup=10 [--virtual=true] [--out=target/load-report.csv]
+ * и параметры {@link DatasetSpec}.
+ */
+public final class LoadHarness {
+    private static final String H2_URL = "jdbc:h2:mem:harness;DB_CLOSE_DELAY=-1";
+    private static final String H2_USER = "test";
+
+    private LoadHarness() {
+    }
+
+    public static void main(String[] args) throws InterruptedException, IOException, SQLException {
+        Args arguments = new Args(args);
+        DatasetSpec spec = DatasetSpec.from(arguments);
+        int clients = arguments.getInt("clients", 200);
+        Duration duration = Duration.ofSeconds(arguments.getLong("duration", 60));
+        Duration warmup = Duration.ofSeconds(arguments.getLong("warmup", 10));
+
+        List<LoadReport> reports;
+        String baseUrl = arguments.get("base-url");
+        if (baseUrl != null) {
+            reports = run(baseUrl, spec, clients, warmup, duration);
+        } else {
+            new DatasetGenerator(new DriverManagerDataSource(H2_URL, H2_USER, H2_USER), spec).generate();
+            try (ConfigurableApplicationContext context = BenchmarkApp.start(WebApplicationType.SERVLET, Map.of(
+                    "server.port", "0",
+                    "spring.datasource.url", H2_URL,
+                    "spring.threads.virtual.enabled", arguments.get("virtual", "false")))) {
+                String url = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                reports = run(url, spec, clients, warmup, duration);
+            }
+        }
+
+        System.out.printf("%s, %d clients, %d s%n", spec, clients, duration.toSeconds());
+        System.out.println(LoadReport.HEADER);
+        reports.forEach(System.out::println);
+
+        String out = arguments.get("out");
+        if (out != null) {
+            List<String> lines = new ArrayList<>();
+            lines.add(LoadReport.CSV_HEADER);
+            reports.forEach(report -> lines.add(report.toCsv()));
+            Files.write(Path.of(out), lines);
+        }
+    }
+
+    private static List<LoadReport> run(String baseUrl, DatasetSpec spec, int clients, Duration warmup,
+                                        Duration duration) throws InterruptedException {
+        Workload workload = new MixedWorkload(baseUrl, spec);
+        try (LoadDriver driver = new LoadDriver(spec.seed())) {
+            driver.run(workload, clients, warmup);
+            return driver.run(workload, clients, duration);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.benchmark.load;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Итог прогона нагрузки: пропускная способность и перцентили задержки успешных запросов.
+ */
+public record LoadReport(String name, long requests, long errors, double seconds,
+                         double p50Millis, double p99Millis, double p999Millis) {
+    static final String HEADER = String.format("%-32s %10s %8s %10s %9s %9s %9s",
+            "scenario", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms");
+
+    static final String CSV_HEADER = "endpoint,requests,errors,throughput,p50_ms,p99_ms,p999_ms";
+
+    static LoadReport of(String name, long[] latenciesNanos, long errors, double seconds) {
+        long[] sorted = latenciesNanos.clone();
+        Arrays.sort(sorted);
+        return new LoadReport(name, sorted.length + errors, errors, seconds,
+                percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999));
+    }
+
+    public double throughput() {
+        return (requests - errors) / seconds;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-32s %10d %8d %10.1f %9.2f %9.2f %9.2f",
+                name, requests, errors, throughput(), p50Millis, p99Millis, p999Millis);
+    }
+
+    public String toCsv() {
+        return String.format(Locale.ROOT, "\"%s\",%d,%d,%.1f,%.3f,%.3f,%.3f",
+                name, requests, errors, throughput(), p50Millis, p99Millis, p999Millis);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.benchmark.load;
+
+import ru.practicum.shareit.benchmark.BenchmarkData;
+import ru.practicum.shareit.benchmark.dataset.DatasetSpec;
+import ru.practicum.shareit.benchmark.dataset.ZipfDistribution;
+
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.random.RandomGenerator;
+
+/**
+ * Смешанная нагрузка только на чтение по набору, созданному DatasetGenerator с той же
+ * спецификацией: вещи и владельцы выбираются по тому же Zipf, остальные пользователи —
+ * равномерно. Запись не входит в смесь, чтобы повторные прогоны шли по одинаковым данным.
+ */
+public class MixedWorkload implements Workload {
+    private static final Mix[] MIX = Mix.values();
+    private static final int TOTAL_WEIGHT = 100;
+
+    private final String baseUrl;
+    private final DatasetSpec spec;
+    private final ZipfDistribution popularItems;
+    private final ZipfDistribution popularOwners;
+
+    public MixedWorkload(String baseUrl, DatasetSpec spec) {
+        this.baseUrl = baseUrl;
+        this.spec = spec;
+        this.popularItems = new ZipfDistribution(spec.items(), spec.zipfExponent());
+        this.popularOwners = new ZipfDistribution(spec.users(), spec.zipfExponent());
+    }
+
+    @Override
+    public Request next(RandomGenerator random) {
+        int roll = random.nextInt(TOTAL_WEIGHT);
+        for (Mix mix : MIX) {
+            roll -= mix.weight;
+            if (roll < 0) {
+                return new Request(mix.endpoint, request(mix, random));
+            }
+        }
+        throw new IllegalStateException("Сумма весов смеси должна быть " + TOTAL_WEIGHT);
+    }
+
+    private HttpRequest request(Mix mix, RandomGenerator random) {
+        long user = 1 + random.nextInt(spec.users());
+        return switch (mix) {
+            case ITEM -> LoadDriver.get(baseUrl, "/items/" + popularItems.sample(random), user);
+            case SEARCH -> LoadDriver.get(baseUrl, "/items/search?text=" + searchText(random), user);
+            case OWNER_BOOKINGS -> LoadDriver.get(baseUrl, "/bookings/owner", (long) popularOwners.sample(random));
+            case BOOKER_BOOKINGS -> LoadDriver.get(baseUrl, "/bookings", user);
+            case COMMENTS -> LoadDriver.get(baseUrl, "/items/" + popularItems.sample(random) + "/comment", null);
+            case USER -> LoadDriver.get(baseUrl, "/users/" + user, null);
+            case OWNED_ITEMS -> LoadDriver.get(baseUrl, "/items", (long) popularOwners.sample(random));
+            case AVAILABILITY -> LoadDriver.get(baseUrl, "/items/" + popularItems.sample(random) + "/availability", null);
+        };
+    }
+
+    // Половина запросов — по словам из названий (много совпадений), половина — по номеру популярной вещи
+    private String searchText(RandomGenerator random) {
+        String text = random.nextBoolean()
+                ? BenchmarkData.WORDS.get(random.nextInt(BenchmarkData.WORDS.size()))
+                : "model " + popularItems.sample(random);
+        return URLEncoder.encode(text, StandardCharsets.UTF_8);
+    }
+
+    private enum Mix {
+        ITEM("GET /items/{id}", 30),
+        SEARCH("GET /items/search", 20),
+        OWNER_BOOKINGS("GET /bookings/owner", 10),
+        BOOKER_BOOKINGS("GET /bookings", 10),
+        COMMENTS("GET /items/{id}/comment", 10),
+        USER("GET /users/{id}", 10),
+        OWNED_ITEMS("GET /items", 5),
+        AVAILABILITY("GET /items/{id}/availability", 5);
+
+        private final String endpoint;
+        private final int weight;
+
+        Mix(String endpoint, int weight) {
+            this.endpoint = endpoint;
+            this.weight = weight;
+        }
+    }
+}
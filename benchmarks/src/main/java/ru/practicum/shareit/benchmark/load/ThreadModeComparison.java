@@ -0,0 +1,101 @@
+package ru.practicum.shareit.benchmark.load;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.benchmark.BenchmarkApp;
+import ru.practicum.shareit.booking.model.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Сравнение пропускной способности и p99 для GET /bookings/owner и GET /items/search
+ * на пуле потоков Tomcat и на виртуальных потоках. Каждый режим запускается
+ * в отдельном контексте на своей базе H2 с одинаковым набором данных.
+ *
+ * <p>Аргументы: [число клиентов, по умолчанию 400] [длительность замера в секундах, по умолчанию 20].
+ */
+public final class ThreadModeComparison {
+    private static final int ITEMS = 100;
+    private static final int BOOKINGS_PER_ITEM = 10;
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final long SEED = 42;
+
+    private ThreadModeComparison() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int concurrency = args.length > 0 ? Integer.parseInt(args[0]) : 400;
+        Duration duration = Duration.ofSeconds(args.length > 1 ? Long.parseLong(args[1]) : 20);
+
+        List<LoadReport> reports = new ArrayList<>();
+        try (LoadDriver driver = new LoadDriver(SEED)) {
+            for (boolean virtual : new boolean[]{false, true}) {
+                String mode = virtual ? "virtual" : "platform";
+                try (ConfigurableApplicationContext context = BenchmarkApp.start(WebApplicationType.SERVLET, Map.of(
+                        "server.port", "0",
+                        "spring.threads.virtual.enabled", String.valueOf(virtual),
+                        "spring.datasource.url", "jdbc:h2:mem:load-" + mode))) {
+                    String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                    Long ownerId = seed(context);
+
+                    Workload ownerBookings = Workload.uniform(mode + " GET /bookings/owner",
+                            List.of(LoadDriver.get(baseUrl, "/bookings/owner", ownerId)));
+                    List<HttpRequest> searches = new ArrayList<>();
+                    for (int i = 0; i < ITEMS; i++) {
+                        searches.add(LoadDriver.get(baseUrl, "/items/search?text=model+" + i, ownerId));
+                    }
+                    Workload search = Workload.uniform(mode + " GET /items/search", searches);
+
+                    for (Workload workload : List.of(ownerBookings, search)) {
+                        driver.run(workload, concurrency, WARMUP);
+                        reports.add(driver.run(workload, concurrency, duration).getFirst());
+                    }
+                }
+            }
+        }
+
+        System.out.printf("%d clients, %d s per scenario%n", concurrency, duration.toSeconds());
+        System.out.println(LoadReport.HEADER);
+        reports.forEach(System.out::println);
+    }
+
+    private static Long seed(ConfigurableApplicationContext context) {
+        UserService userService = context.getBean(UserService.class);
+        ItemService itemService = context.getBean(ItemService.class);
+        BookingService bookingService = context.getBean(BookingService.class);
+
+        Long ownerId = userService.createUser(UserDto.builder().name("Owner").email("owner@mail.ru").build()).getId();
+        Long bookerId = userService.createUser(UserDto.builder().name("Booker").email("booker@mail.ru").build()).getId();
+
+        List<ItemDto> items = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(ItemDto.builder()
+                    .name("Item model " + i)
+                    .description("Item for load test " + i)
+                    .isAvailable(true)
+                    .build());
+        }
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        for (ItemDto item : itemService.createItems(items, ownerId)) {
+            for (int b = 0; b < BOOKINGS_PER_ITEM; b++) {
+                bookingService.createBooking(BookingDto.builder()
+                        .itemId(item.getId())
+                        .start(start.plusDays(b))
+                        .end(start.plusDays(b).plusHours(12))
+                        .build(), bookerId);
+            }
+        }
+        return ownerId;
+    }
+}
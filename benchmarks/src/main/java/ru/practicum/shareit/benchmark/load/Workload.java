@@ -0,0 +1,24 @@
+package ru.practicum.shareit.benchmark.load;
+
+import java.net.http.HttpRequest;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Источник запросов для {@link LoadDriver}. Каждый клиент вызывает next со своим
+ * генератором случайных чисел, поэтому реализация не должна хранить изменяемое состояние.
+ */
+@FunctionalInterface
+public interface Workload {
+    Request next(RandomGenerator random);
+
+    /**
+     * @param endpoint имя, по которому группируются результаты, например "GET /items/{id}"
+     */
+    record Request(String endpoint, HttpRequest http) {
+    }
+
+    static Workload uniform(String endpoint, List<HttpRequest> requests) {
+        return random -> new Request(endpoint, requests.get(random.nextInt(requests.size())));
+    }
+}
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatusType;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Индекс занятости вещей: для каждой вещи хранит дерево интервалов активных
+ * (ожидающих подтверждения и подтверждённых) бронирований. Закончившиеся интервалы
+ * не загружаются и вычищаются из дерева вещи при добавлении в него нового интервала.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingAvailabilityIndex {
+    public static final Set<BookingStatusType> ACTIVE_STATUSES =
+            EnumSet.of(BookingStatusType.WAITING, BookingStatusType.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final Map<Long, ItemIntervalTree> trees = new ConcurrentHashMap<>();
+    private final Map<Long, BookingInterval> intervals = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        trees.clear();
+        intervals.clear();
+        bookingRepository.findAllIntervalsByStatusInEndingAfter(ACTIVE_STATUSES, LocalDateTime.now()).forEach(this::add);
+        log.info("Индекс занятости загружен: {} вещей", trees.size());
+    }
+
+    public boolean isBooked(Long itemId, LocalDateTime start, LocalDateTime end) {
+        ItemIntervalTree tree = trees.get(itemId);
+        return tree != null && tree.overlaps(start, end);
+    }
+
+    public void update(Booking booking) {
+        if (ACTIVE_STATUSES.contains(booking.getStatus())) {
+            if (!intervals.containsKey(booking.getId())) {
+                removeEnded(booking.getItem().getId());
+                add(new BookingInterval(booking.getId(), booking.getItem().getId(), booking.getBooker().getId(),
+                        booking.getStart(), booking.getEnd()));
+            }
+        } else {
+            remove(booking.getId());
+        }
+    }
+
+    /**
+     * Убирает бронирования удалённого арендатора (в БД они удаляются каскадом).
+     * Возвращает вещи, занятость которых изменилась.
+     */
+    public Set<Long> removeByBooker(Long bookerId) {
+        Set<Long> itemIds = new HashSet<>();
+        for (BookingInterval interval : intervals.values()) {
+            if (interval.bookerId().equals(bookerId)) {
+                remove(interval.bookingId());
+                itemIds.add(interval.itemId());
+            }
+        }
+        return itemIds;
+    }
+
+    public void removeItem(Long itemId) {
+        trees.remove(itemId);
+        intervals.values().removeIf(interval -> interval.itemId().equals(itemId));
+    }
+
+    private void add(BookingInterval interval) {
+        intervals.put(interval.bookingId(), interval);
+        tree(interval.itemId()).add(interval.bookingId(), interval.start(), interval.end());
+    }
+
+    private void removeEnded(Long itemId) {
+        ItemIntervalTree tree = trees.get(itemId);
+        if (tree != null) {
+            tree.removeEnded(LocalDateTime.now()).forEach(intervals::remove);
+        }
+    }
+
+    private void remove(Long bookingId) {
+        BookingInterval interval = intervals.remove(bookingId);
+        if (interval != null) {
+            tree(interval.itemId()).remove(interval.bookingId(), interval.start());
+        }
+    }
+
+    private ItemIntervalTree tree(Long itemId) {
+        return trees.computeIfAbsent(itemId, id -> new ItemIntervalTree());
+    }
+}
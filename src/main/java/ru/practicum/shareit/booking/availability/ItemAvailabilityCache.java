@@ -0,0 +1,67 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Кэш свободных интервалов по вещам. Записи вещи сбрасываются целиком при любом
+ * изменении её бронирований; число вещей в кэше ограничено (LRU).
+ */
+@Component
+public class ItemAvailabilityCache {
+    private static final int MAX_RANGES_PER_ITEM = 16;
+
+    private final Map<Long, Map<Range, List<AvailabilitySlotDto>>> entries;
+    private long generation;
+
+    public ItemAvailabilityCache(@Value("${shareit.availability.cache.max-items:10000}") int maxItems) {
+        entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Map<Range, List<AvailabilitySlotDto>>> eldest) {
+                return size() > maxItems;
+            }
+        };
+    }
+
+    public List<AvailabilitySlotDto> get(Long itemId, LocalDateTime from, LocalDateTime to,
+                                         Supplier<List<AvailabilitySlotDto>> loader) {
+        Range range = new Range(from, to);
+        long loadedAt;
+        synchronized (this) {
+            Map<Range, List<AvailabilitySlotDto>> ranges = entries.get(itemId);
+            if (ranges != null && ranges.containsKey(range)) {
+                return ranges.get(range);
+            }
+            loadedAt = generation;
+        }
+
+        List<AvailabilitySlotDto> slots = List.copyOf(loader.get());
+        synchronized (this) {
+            // Если за время загрузки бронирования менялись, результат может быть устаревшим
+            if (loadedAt == generation) {
+                entries.computeIfAbsent(itemId, id -> new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<Range, List<AvailabilitySlotDto>> eldest) {
+                        return size() > MAX_RANGES_PER_ITEM;
+                    }
+                }).put(range, slots);
+            }
+        }
+        return slots;
+    }
+
+    public synchronized void invalidate(Long itemId) {
+        generation++;
+        entries.remove(itemId);
+    }
+
+    private record Range(LocalDateTime from, LocalDateTime to) {
+    }
+}
@@ -0,0 +1,198 @@
+package ru.practicum.shareit.booking.availability;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * AVL-дерево интервалов бронирования одной вещи, упорядоченное по (start, bookingId).
+ * Каждый узел хранит максимальное время окончания в своём поддереве,
+ * поэтому поиск пересечения выполняется за O(log n).
+ */
+class ItemIntervalTree {
+    private Node root;
+    private int size;
+
+    synchronized boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        Node node = root;
+        while (node != null && node.maxEnd.isAfter(start)) {
+            if (node.start.isBefore(end) && node.end.isAfter(start)) {
+                return true;
+            }
+            if (node.left != null && node.left.maxEnd.isAfter(start)) {
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return false;
+    }
+
+    synchronized void add(long bookingId, LocalDateTime start, LocalDateTime end) {
+        root = insert(root, bookingId, start, end);
+    }
+
+    synchronized void remove(long bookingId, LocalDateTime start) {
+        root = delete(root, bookingId, start);
+    }
+
+    // Удаляет интервалы, закончившиеся не позже moment, и возвращает их бронирования
+    synchronized List<Long> removeEnded(LocalDateTime moment) {
+        List<Node> ended = new ArrayList<>();
+        collectEnded(root, moment, ended);
+        List<Long> bookingIds = new ArrayList<>(ended.size());
+        for (Node node : ended) {
+            root = delete(root, node.bookingId, node.start);
+            bookingIds.add(node.bookingId);
+        }
+        return bookingIds;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    private Node insert(Node node, long bookingId, LocalDateTime start, LocalDateTime end) {
+        if (node == null) {
+            size++;
+            return new Node(bookingId, start, end);
+        }
+
+        int cmp = compare(bookingId, start, node);
+        if (cmp < 0) {
+            node.left = insert(node.left, bookingId, start, end);
+        } else if (cmp > 0) {
+            node.right = insert(node.right, bookingId, start, end);
+        } else {
+            node.end = end;
+        }
+        return balance(node);
+    }
+
+    private Node delete(Node node, long bookingId, LocalDateTime start) {
+        if (node == null) {
+            return null;
+        }
+
+        int cmp = compare(bookingId, start, node);
+        if (cmp < 0) {
+            node.left = delete(node.left, bookingId, start);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, bookingId, start);
+        } else {
+            size--;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            node.right = detachMin(node.right);
+            successor.left = node.left;
+            successor.right = node.right;
+            node = successor;
+        }
+        return balance(node);
+    }
+
+    private static void collectEnded(Node node, LocalDateTime moment, List<Node> ended) {
+        if (node == null) {
+            return;
+        }
+        collectEnded(node.left, moment, ended);
+        // Закончившийся интервал начался раньше moment, а в правом поддереве начала не раньше узла
+        if (node.start.isBefore(moment)) {
+            if (!node.end.isAfter(moment)) {
+                ended.add(node);
+            }
+            collectEnded(node.right, moment, ended);
+        }
+    }
+
+    private Node detachMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = detachMin(node.left);
+        return balance(node);
+    }
+
+    private static int compare(long bookingId, LocalDateTime start, Node node) {
+        int cmp = start.compareTo(node.start);
+        return cmp != 0 ? cmp : Long.compare(bookingId, node.bookingId);
+    }
+
+    private static Node balance(Node node) {
+        update(node);
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        LocalDateTime maxEnd = node.end;
+        if (node.left != null && node.left.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.right.maxEnd;
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static final class Node {
+        private final long bookingId;
+        private final LocalDateTime start;
+        private LocalDateTime end;
+        private LocalDateTime maxEnd;
+        private int height = 1;
+        private Node left;
+        private Node right;
+
+        private Node(long bookingId, LocalDateTime start, LocalDateTime end) {
+            this.bookingId = bookingId;
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+        }
+    }
+}
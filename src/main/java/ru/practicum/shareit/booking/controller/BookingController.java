@@ -2,6 +2,8 @@ package ru.practicum.shareit.booking.controller;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -11,9 +13,15 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.model.BookingDecisionDto;
+import ru.practicum.shareit.booking.model.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.model.BookingDto;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.stream.BookingStream;
+import ru.practicum.shareit.pagination.CursorCodec;
+import ru.practicum.shareit.pagination.CursorPage;
 
 import java.util.List;
 
@@ -22,6 +30,7 @@ import java.util.List;
 @RequestMapping(path = "/bookings")
 public class BookingController {
     private final BookingService bookingService;
+    private final BookingStream bookingStream;
 
     @PostMapping
     public BookingDto create(@Valid @RequestBody BookingDto bookingDto,
@@ -37,6 +46,13 @@ public class BookingController {
         return bookingService.updateBookingStatus(bookingId, userId, approved);
     }
 
+    @PatchMapping
+    public List<BookingDecisionResultDto> updateStatuses(
+            @RequestBody List<@Valid BookingDecisionDto> decisions,
+            @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return bookingService.updateBookingStatuses(decisions, userId);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDto findById(@PathVariable Long bookingId,
                                @RequestHeader("X-Sharer-User-Id") Long userId) {
@@ -44,14 +60,33 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> findAllByBookerAndState(@RequestParam(required = false, defaultValue = "ALL") BookingState state,
-                                                    @RequestHeader("X-Sharer-User-Id") Long userId) {
-        return bookingService.readByBookerAndState(state, userId);
+    public ResponseEntity<List<BookingDto>> findAllByBookerAndState(
+            @RequestParam(required = false, defaultValue = "ALL") BookingState state,
+            @RequestParam(required = false, defaultValue = CursorCodec.DEFAULT_LIMIT) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return toResponse(bookingService.readByBookerAndState(state, userId, limit, after));
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> findAllByOwnerAndState(@RequestParam(required = false, defaultValue = "ALL") BookingState state,
-                                                   @RequestHeader("X-Sharer-User-Id") Long userId) {
-        return bookingService.readByOwnerAndState(state, userId);
+    public ResponseEntity<List<BookingDto>> findAllByOwnerAndState(
+            @RequestParam(required = false, defaultValue = "ALL") BookingState state,
+            @RequestParam(required = false, defaultValue = CursorCodec.DEFAULT_LIMIT) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return toResponse(bookingService.readByOwnerAndState(state, userId, limit, after));
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return bookingStream.subscribe(userId);
+    }
+
+    private ResponseEntity<List<BookingDto>> toResponse(CursorPage<BookingDto> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(CursorPage.NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.content());
     }
 }
\ No newline at end of file
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.booking.model;
+
+public enum BookingDecisionOutcome {
+    UPDATED,
+    NOT_FOUND,
+    FORBIDDEN,
+    INVALID_TRANSITION
+}
@@ -1,41 +1,105 @@
 package ru.practicum.shareit.booking.repository;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.availability.BookingInterval;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatusType;
-import org.springframework.data.domain.Sort;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
+    @Override
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Optional<Booking> findById(Long id);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    List<Booking> findAllByIdIn(Collection<Long> ids);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Window<Booking> findAllByBookerId(Long bookerId, ScrollPosition position, Sort sort, Limit limit);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Window<Booking> findAllByBookerIdAndStatus(
+            Long bookerId, BookingStatusType status, ScrollPosition position, Sort sort, Limit limit);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Window<Booking> findAllByBookerIdAndEndBefore(
+            Long bookerId, LocalDateTime end, ScrollPosition position, Sort sort, Limit limit);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Window<Booking> findAllByBookerIdAndStartBeforeAndEndAfter(
+            Long bookerId, LocalDateTime start, LocalDateTime end, ScrollPosition position, Sort sort, Limit limit);
 
-    List<Booking> findAllByBookerId(Long bookerId, Sort sort);
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Window<Booking> findAllByBookerIdAndStartAfter(
+            Long bookerId, LocalDateTime start, ScrollPosition position, Sort sort, Limit limit);
 
-    List<Booking> findAllByBookerIdAndStatus(Long bookerId, BookingStatusType status, Sort sort);
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Window<Booking> findAllByItemOwnerId(Long ownerId, ScrollPosition position, Sort sort, Limit limit);
 
-    List<Booking> findAllByBookerIdAndEndBefore(Long bookerId, LocalDateTime end, Sort sort);
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Window<Booking> findAllByItemOwnerIdAndStatus(
+            Long ownerId, BookingStatusType status, ScrollPosition position, Sort sort, Limit limit);
 
-    List<Booking> findAllByBookerIdAndStartBeforeAndEndAfter(
-            Long bookerId, LocalDateTime start, LocalDateTime end, Sort sort);
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Window<Booking> findAllByItemOwnerIdAndEndBefore(
+            Long ownerId, LocalDateTime end, ScrollPosition position, Sort sort, Limit limit);
 
-    List<Booking> findAllByBookerIdAndStartAfter(Long bookerId, LocalDateTime start, Sort sort);
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Window<Booking> findAllByItemOwnerIdAndStartBeforeAndEndAfter(
+            Long ownerId, LocalDateTime start, LocalDateTime end, ScrollPosition position, Sort sort, Limit limit);
 
-    List<Booking> findAllByItemOwnerId(Long ownerId, Sort sort);
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Window<Booking> findAllByItemOwnerIdAndStartAfter(
+            Long ownerId, LocalDateTime start, ScrollPosition position, Sort sort, Limit limit);
 
-    List<Booking> findAllByItemOwnerIdAndStatus(Long ownerId, BookingStatusType status, Sort sort);
+    boolean existsByItemIdAndStatusInAndStartBeforeAndEndAfter(
+            Long itemId, Collection<BookingStatusType> statuses, LocalDateTime end, LocalDateTime start);
 
-    List<Booking> findAllByItemOwnerIdAndEndBefore(Long ownerId, LocalDateTime end, Sort sort);
+    @Query("select new ru.practicum.shareit.booking.availability.BookingInterval(b.id, b.item.id, b.booker.id, b.start, b.end) " +
+            "from Booking b where b.status in ?1 and b.end > ?2")
+    List<BookingInterval> findAllIntervalsByStatusInEndingAfter(Collection<BookingStatusType> statuses,
+                                                                LocalDateTime moment);
 
-    List<Booking> findAllByItemOwnerIdAndStartBeforeAndEndAfter(
-            Long ownerId, LocalDateTime start, LocalDateTime end, Sort sort);
+    @Query("select new ru.practicum.shareit.booking.availability.BookingInterval(b.id, b.item.id, b.booker.id, b.start, b.end) " +
+            "from Booking b where b.item.id = ?1 and b.status not in ?2 and b.end > ?3 and b.start < ?4 " +
+            "order by b.start")
+    List<BookingInterval> findAllIntervalsByItemInRange(
+            Long itemId, Collection<BookingStatusType> excludedStatuses, LocalDateTime from, LocalDateTime to);
 
-    List<Booking> findAllByItemOwnerIdAndStartAfter(Long ownerId, LocalDateTime start, Sort sort);
+    // Последнее начавшееся и ближайшее будущее бронирование каждой вещи одним запросом:
+    // бронирования каждой вещи нумеруются за один проход по индексу (item_id, status, start_date).
+    // Соединение, а не b.id in (...): H2 иначе пересчитывает подзапрос для каждой строки bookings
+    @Query("select b from Booking b join fetch b.item join fetch b.booker join (" +
+            "select l.id as id, row_number() over (partition by l.item.id order by l.start desc, l.id desc) as position " +
+            "from Booking l where l.item.id in ?1 and l.status = ?2 and l.start <= ?3 " +
+            "union all " +
+            "select n.id as id, row_number() over (partition by n.item.id order by n.start, n.id) as position " +
+            "from Booking n where n.item.id in ?1 and n.status = ?2 and n.start > ?3" +
+            ") r on r.id = b.id where r.position = 1")
+    List<Booking> findLastAndNextByItemIdIn(Collection<Long> itemIds, BookingStatusType status, LocalDateTime now);
 
-    Optional<Booking> findByItemIdAndEndIsAfterAndStartIsBefore(Long id, LocalDateTime end, LocalDateTime start);
+    // То же для всех вещей владельца: отбор по items(owner_id) вместо списка id, который H2
+    // с тысячами параметров проверяет перебором для каждой строки
+    @Query("select b from Booking b join fetch b.item join fetch b.booker join (" +
+            "select l.id as id, row_number() over (partition by l.item.id order by l.start desc, l.id desc) as position " +
+            "from Booking l where l.item.owner.id = ?1 and l.status = ?2 and l.start <= ?3 " +
+            "union all " +
+            "select n.id as id, row_number() over (partition by n.item.id order by n.start, n.id) as position " +
+            "from Booking n where n.item.owner.id = ?1 and n.status = ?2 and n.start > ?3" +
+            ") r on r.id = b.id where r.position = 1")
+    List<Booking> findLastAndNextByItemOwnerId(Long ownerId, BookingStatusType status, LocalDateTime now);
 
     Optional<Booking> findByItemIdAndBookerIdAndEndBefore(Long itemId, Long userId, LocalDateTime now);
 }
\ No newline at end of file
@@ -2,45 +2,77 @@ package ru.practicum.shareit.booking.service;
 
 import jakarta.validation.ValidationException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
-import org.springframework.statemachine.StateMachine;
-import org.springframework.statemachine.config.StateMachineFactory;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.availability.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityCache;
+import ru.practicum.shareit.booking.lock.ItemLockStripes;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingDecisionDto;
+import ru.practicum.shareit.booking.model.BookingDecisionOutcome;
+import ru.practicum.shareit.booking.model.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.model.BookingDto;
 import ru.practicum.shareit.booking.model.BookingEvent;
 import ru.practicum.shareit.booking.model.BookingMapper;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatusType;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.statemachine.BookingTransitionTable;
+import ru.practicum.shareit.booking.stream.BookingStream;
 import ru.practicum.shareit.exceptions.ConditionsNotMetException;
 import ru.practicum.shareit.exceptions.ExceptionMessages;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.WrongUserException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.CursorCodec;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.transaction.TransactionCallbacks;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class BookingService {
+    private static final String START_PROPERTY = "start";
+    private static final int MAX_BATCH_SIZE = 500;
+    // Курсор действует только для того списка и состояния, для которого выдан: от состояния зависят фильтр и сортировка
+    private static final String BOOKER_SCOPE = "booker:";
+    private static final String OWNER_SCOPE = "owner:";
+
     private final BookingRepository bookingRepository;
-    private final UserRepository userRepository;
+    private final UserService userService;
     private final ItemRepository itemRepository;
-    private final StateMachineFactory<BookingStatusType, BookingEvent> stateMachineFactory;
+    private final BookingTransitionTable transitionTable;
+    private final BookingAvailabilityIndex availabilityIndex;
+    private final ItemAvailabilityCache availabilityCache;
+    private final ItemLockStripes itemLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final BookingStream bookingStream;
 
     // Вспомогательный метод для создания сортировки
     private Sort createSort(BookingState state) {
-        return state == BookingState.ALL
-                ? Sort.by(Sort.Direction.ASC, "start")
-                : Sort.by(Sort.Direction.DESC, "start");
+        Sort.Direction direction = state == BookingState.ALL ? Sort.Direction.ASC : Sort.Direction.DESC;
+        return Sort.by(direction, START_PROPERTY, "id");
     }
 
+    @Transactional(readOnly = true)
     public BookingDto getBookingDto(Long bookingId, Long userId) {
         Optional<Booking> bookingOptional = getBooking(bookingId);
         if (bookingOptional.isEmpty()) {
@@ -54,116 +86,129 @@ public class BookingService {
         return BookingMapper.toBookingDto(booking);
     }
 
-    public List<BookingDto> readByBookerAndState(BookingState state, Long userId) {
+    @Transactional(readOnly = true)
+    public CursorPage<BookingDto> readByBookerAndState(BookingState state, Long userId, int limit, String after) {
+        CursorCodec.validateLimit(limit);
+        String scope = BOOKER_SCOPE + state;
+        ScrollPosition position = CursorCodec.decode(after, scope, START_PROPERTY);
         Sort sort = createSort(state);
-        List<Booking> bookings;
+        Limit pageLimit = Limit.of(limit);
+        LocalDateTime now = LocalDateTime.now();
+        Window<Booking> bookings;
 
         switch (state) {
             case ALL:
-                bookings = bookingRepository.findAllByBookerId(userId, sort);
+                bookings = bookingRepository.findAllByBookerId(userId, position, sort, pageLimit);
                 break;
             case WAITING:
             case REJECTED:
                 bookings = bookingRepository.findAllByBookerIdAndStatus(
                         userId,
                         BookingStatusType.valueOf(state.name()),
-                        sort
+                        position,
+                        sort,
+                        pageLimit
                 );
                 break;
             case PAST:
-                bookings = bookingRepository.findAllByBookerIdAndEndBefore(
-                        userId,
-                        LocalDateTime.now(),
-                        sort
-                );
+                bookings = bookingRepository.findAllByBookerIdAndEndBefore(userId, now, position, sort, pageLimit);
                 break;
             case CURRENT:
                 bookings = bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfter(
                         userId,
-                        LocalDateTime.now(),
-                        LocalDateTime.now(),
-                        sort
+                        now,
+                        now,
+                        position,
+                        sort,
+                        pageLimit
                 );
                 break;
             case FUTURE:
-                bookings = bookingRepository.findAllByBookerIdAndStartAfter(
-                        userId,
-                        LocalDateTime.now(),
-                        sort
-                );
+                bookings = bookingRepository.findAllByBookerIdAndStartAfter(userId, now, position, sort, pageLimit);
                 break;
             default:
                 throw new IllegalArgumentException("Unknown state: " + state);
         }
 
-        return bookings.stream()
-                .map(BookingMapper::toBookingDto)
-                .toList();
+        return toPage(bookings, scope);
     }
 
-    public List<BookingDto> readByOwnerAndState(BookingState state, Long userId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException(String.format(ExceptionMessages.USER_NOT_FOUND_ERROR, userId)));
+    @Transactional(readOnly = true)
+    public CursorPage<BookingDto> readByOwnerAndState(BookingState state, Long userId, int limit, String after) {
+        if (!userService.existsUser(userId)) {
+            throw new NotFoundException(String.format(ExceptionMessages.USER_NOT_FOUND_ERROR, userId));
+        }
 
+        CursorCodec.validateLimit(limit);
+        String scope = OWNER_SCOPE + state;
+        ScrollPosition position = CursorCodec.decode(after, scope, START_PROPERTY);
         Sort sort = createSort(state);
-        List<Booking> bookings;
+        Limit pageLimit = Limit.of(limit);
+        LocalDateTime now = LocalDateTime.now();
+        Window<Booking> bookings;
 
         switch (state) {
             case ALL:
-                bookings = bookingRepository.findAllByItemOwnerId(userId, sort);
+                bookings = bookingRepository.findAllByItemOwnerId(userId, position, sort, pageLimit);
                 break;
             case WAITING:
             case REJECTED:
                 bookings = bookingRepository.findAllByItemOwnerIdAndStatus(
                         userId,
                         BookingStatusType.valueOf(state.name()),
-                        sort
+                        position,
+                        sort,
+                        pageLimit
                 );
                 break;
             case PAST:
-                bookings = bookingRepository.findAllByItemOwnerIdAndEndBefore(
-                        userId,
-                        LocalDateTime.now(),
-                        sort
-                );
+                bookings = bookingRepository.findAllByItemOwnerIdAndEndBefore(userId, now, position, sort, pageLimit);
                 break;
             case CURRENT:
                 bookings = bookingRepository.findAllByItemOwnerIdAndStartBeforeAndEndAfter(
                         userId,
-                        LocalDateTime.now(),
-                        LocalDateTime.now(),
-                        sort
+                        now,
+                        now,
+                        position,
+                        sort,
+                        pageLimit
                 );
                 break;
             case FUTURE:
-                bookings = bookingRepository.findAllByItemOwnerIdAndStartAfter(
-                        userId,
-                        LocalDateTime.now(),
-                        sort
-                );
+                bookings = bookingRepository.findAllByItemOwnerIdAndStartAfter(userId, now, position, sort, pageLimit);
                 break;
             default:
                 throw new IllegalArgumentException("Unknown state: " + state);
         }
 
-        return bookings.stream()
-                .map(BookingMapper::toBookingDto)
-                .toList();
+        return toPage(bookings, scope);
     }
 
+    // Не @Transactional: транзакция должна закоммититься до снятия блокировки полосы
     public BookingDto createBooking(BookingDto bookingDto, Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException(String.format(ExceptionMessages.USER_NOT_FOUND_ERROR, userId)));
-        Item item = itemRepository.findById(bookingDto.getItemId())
-                .orElseThrow(() -> new NotFoundException(String.format(ExceptionMessages.ITEM_NOT_FOUND_ERROR, bookingDto.getItemId())));
-
-        Booking booking = BookingMapper.toBooking(bookingDto, item, user);
-        validateBooking(booking);
-        booking = bookingRepository.saveAndFlush(booking);
-
+        User user = userService.getUser(userId);
+
+        // Проверка пересечений и вставка выполняются под блокировкой полосы вещи и строки items (FOR UPDATE),
+        // индекс обновляется после коммита, но до снятия блокировки, а подписчики узнают о брони уже после неё
+        Booking booking = itemLocks.withLock(bookingDto.getItemId(), () -> {
+            Booking created = transactionTemplate.execute(status -> {
+                Item item = itemRepository.findByIdForUpdate(bookingDto.getItemId())
+                        .orElseThrow(() -> new NotFoundException(
+                                String.format(ExceptionMessages.ITEM_NOT_FOUND_ERROR, bookingDto.getItemId())));
+
+                Booking newBooking = BookingMapper.toBooking(bookingDto, item, user);
+                validateBooking(newBooking);
+                return bookingRepository.save(newBooking);
+            });
+            updateAvailability(created);
+            return created;
+        });
+
+        bookingStream.publish(booking);
         return BookingMapper.toBookingDto(booking);
     }
 
+    @Transactional
     public BookingDto updateBookingStatus(Long bookingId, Long userId, Boolean approved) {
         Optional<Booking> bookingOptional = getBooking(bookingId);
         if (bookingOptional.isEmpty()) {
@@ -175,11 +220,80 @@ public class BookingService {
             throw new WrongUserException(ExceptionMessages.BOOKING_CHANGE_STATUS);
         }
 
+        // Статус сохраняется проверкой изменений при коммите
         changeStatus(booking, approved ? BookingEvent.APPROVE : BookingEvent.REJECT);
+        TransactionCallbacks.afterCommit(() -> onBookingChanged(booking));
+
+        return BookingMapper.toBookingDto(booking);
+    }
+
+    @Transactional
+    public List<BookingDecisionResultDto> updateBookingStatuses(List<BookingDecisionDto> decisions, Long userId) {
+        if (decisions.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException(String.format(ExceptionMessages.BOOKING_BATCH_SIZE_ERROR, MAX_BATCH_SIZE));
+        }
+        // Повторное решение по тому же бронированию применилось бы к уже изменённому статусу
+        Set<Long> bookingIds = new HashSet<>();
+        for (BookingDecisionDto decision : decisions) {
+            if (decision.getBookingId() != null && !bookingIds.add(decision.getBookingId())) {
+                throw new ValidationException(
+                        String.format(ExceptionMessages.BOOKING_BATCH_DUPLICATE_ERROR, decision.getBookingId()));
+            }
+        }
+
+        Map<Long, Booking> bookings = bookingRepository.findAllByIdIn(bookingIds)
+                .stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+
+        List<BookingDecisionResultDto> results = new ArrayList<>(decisions.size());
+        List<Booking> changed = new ArrayList<>();
+        for (BookingDecisionDto decision : decisions) {
+            BookingDecisionResultDto result = applyDecision(decision, bookings.get(decision.getBookingId()), userId);
+            if (result.getOutcome() == BookingDecisionOutcome.UPDATED) {
+                changed.add(bookings.get(decision.getBookingId()));
+            }
+            results.add(result);
+        }
+
+        // Статусы сохраняются пакетными UPDATE при коммите, индекс обновляется только после него
+        TransactionCallbacks.afterCommit(() -> changed.forEach(this::onBookingChanged));
+        return results;
+    }
+
+    private BookingDecisionResultDto applyDecision(BookingDecisionDto decision, Booking booking, Long userId) {
+        BookingDecisionResultDto.BookingDecisionResultDtoBuilder result = BookingDecisionResultDto.builder()
+                .bookingId(decision.getBookingId());
+
+        if (decision.getBookingId() == null || decision.getApproved() == null) {
+            return result.outcome(BookingDecisionOutcome.INVALID_TRANSITION)
+                    .error(ExceptionMessages.BOOKING_DECISION_INVALID)
+                    .build();
+        }
+        if (booking == null) {
+            return result.outcome(BookingDecisionOutcome.NOT_FOUND)
+                    .error(String.format(ExceptionMessages.BOOKING_NOT_FOUND_ERROR, decision.getBookingId()))
+                    .build();
+        }
+        if (!booking.getItem().getOwner().getId().equals(userId)) {
+            return result.outcome(BookingDecisionOutcome.FORBIDDEN)
+                    .error(ExceptionMessages.BOOKING_CHANGE_STATUS)
+                    .build();
+        }
+
+        try {
+            changeStatus(booking, decision.getApproved() ? BookingEvent.APPROVE : BookingEvent.REJECT);
+        } catch (ValidationException e) {
+            return result.outcome(BookingDecisionOutcome.INVALID_TRANSITION)
+                    .error(e.getMessage())
+                    .build();
+        }
 
-        return BookingMapper.toBookingDto(bookingRepository.saveAndFlush(booking));
+        return result.outcome(BookingDecisionOutcome.UPDATED)
+                .booking(BookingMapper.toBookingDto(booking))
+                .build();
     }
 
+    @Transactional
     public BookingDto cancelBooking(Long bookingId, Long userId) {
         Optional<Booking> bookingOptional = getBooking(bookingId);
         if (bookingOptional.isEmpty()) {
@@ -193,17 +307,13 @@ public class BookingService {
         }
 
         changeStatus(booking, BookingEvent.CANCEL);
-        return BookingMapper.toBookingDto(bookingRepository.save(booking));
+        TransactionCallbacks.afterCommit(() -> onBookingChanged(booking));
+
+        return BookingMapper.toBookingDto(booking);
     }
 
     private void validateBooking(Booking booking) {
-        Optional<Booking> bookingOptional = bookingRepository.findByItemIdAndEndIsAfterAndStartIsBefore(
-                booking.getItem().getId(),
-                booking.getEnd(),
-                booking.getStart()
-        );
-
-        if (bookingOptional.isPresent()) {
+        if (isBooked(booking)) {
             throw new ConditionsNotMetException(ExceptionMessages.BOOKING_ITEM_IS_BOOKED);
         }
 
@@ -222,6 +332,41 @@ public class BookingService {
         }
     }
 
+    private void onBookingChanged(Booking booking) {
+        updateAvailability(booking);
+        bookingStream.publish(booking);
+    }
+
+    private void updateAvailability(Booking booking) {
+        availabilityIndex.update(booking);
+        availabilityCache.invalidate(booking.getItem().getId());
+    }
+
+    // Пересечения отсекаются индексом в памяти, база только подтверждает свободный интервал
+    private boolean isBooked(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        if (availabilityIndex.isBooked(itemId, booking.getStart(), booking.getEnd())) {
+            return true;
+        }
+
+        return bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(
+                itemId,
+                BookingAvailabilityIndex.ACTIVE_STATUSES,
+                booking.getEnd(),
+                booking.getStart()
+        );
+    }
+
+    private CursorPage<BookingDto> toPage(Window<Booking> bookings, String scope) {
+        String nextCursor = null;
+        if (bookings.hasNext() && !bookings.isEmpty()) {
+            nextCursor = CursorCodec.encode(scope,
+                    (KeysetScrollPosition) bookings.positionAt(bookings.size() - 1), START_PROPERTY);
+        }
+
+        return new CursorPage<>(bookings.map(BookingMapper::toBookingDto).getContent(), nextCursor);
+    }
+
     private Optional<Booking> getBooking(Long bookingId) {
         return bookingRepository.findById(bookingId)
                 .or(() -> {
@@ -230,16 +375,6 @@ public class BookingService {
     }
 
     private void changeStatus(Booking booking, BookingEvent bookingEvent) {
-        StateMachine<BookingStatusType, BookingEvent> sm = stateMachineFactory.getStateMachine(booking.getId().toString());
-        sm.start();
-        sm.getExtendedState().getVariables().put("booking", booking);
-        sm.sendEvent(bookingEvent);
-
-        if (sm.getState() == null) {
-            throw new IllegalStateException("StateMachine is not properly initialized or started.");
-        }
-
-        booking.setStatus(sm.getState().getId());
-        sm.stop();
+        booking.setStatus(transitionTable.next(booking.getStatus(), bookingEvent));
     }
 }
\ No newline at end of file
@@ -40,6 +40,12 @@ public class BookingStateMachineConfig extends EnumStateMachineConfigurerAdapter
                 .withExternal() // WAITING → CANCELLED
                 .source(BookingStatusType.WAITING)
                 .target(BookingStatusType.CANCELLED)
+                .event(BookingEvent.CANCEL)
+
+                .and()
+                .withExternal() // APPROVED → CANCELLED: отмена только освобождает интервал
+                .source(BookingStatusType.APPROVED)
+                .target(BookingStatusType.CANCELLED)
                 .event(BookingEvent.CANCEL);
     }
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.booking.statemachine;
+
+import jakarta.validation.ValidationException;
+import org.springframework.statemachine.StateMachine;
+import org.springframework.statemachine.config.StateMachineFactory;
+import org.springframework.statemachine.transition.Transition;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.BookingEvent;
+import ru.practicum.shareit.booking.model.BookingStatusType;
+import ru.practicum.shareit.exceptions.ExceptionMessages;
+
+/**
+ * Неизменяемая таблица переходов статусов бронирования, построенная один раз
+ * по конфигурации {@link BookingStateMachineConfig}. Поиск перехода — обращение
+ * к массиву по ordinal, без создания машины состояний на каждое событие.
+ */
+@Component
+public class BookingTransitionTable {
+    private final BookingStatusType[][] targets =
+            new BookingStatusType[BookingStatusType.values().length][BookingEvent.values().length];
+
+    public BookingTransitionTable(StateMachineFactory<BookingStatusType, BookingEvent> stateMachineFactory) {
+        StateMachine<BookingStatusType, BookingEvent> stateMachine = stateMachineFactory.getStateMachine();
+        for (Transition<BookingStatusType, BookingEvent> transition : stateMachine.getTransitions()) {
+            if (transition.getGuard() != null) {
+                throw new IllegalStateException("Переходы с guard не поддерживаются таблицей переходов");
+            }
+
+            BookingStatusType source = transition.getSource().getId();
+            BookingEvent event = transition.getTrigger().getEvent();
+            targets[source.ordinal()][event.ordinal()] = transition.getTarget().getId();
+        }
+    }
+
+    public BookingStatusType next(BookingStatusType current, BookingEvent event) {
+        BookingStatusType target = targets[current.ordinal()][event.ordinal()];
+        if (target == null) {
+            throw new ValidationException(String.format(ExceptionMessages.BOOKING_STATUS_TRANSITION_ERROR, current, event));
+        }
+        return target;
+    }
+}
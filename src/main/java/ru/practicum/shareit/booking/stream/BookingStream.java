@@ -0,0 +1,200 @@
+package ru.practicum.shareit.booking.stream;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingDto;
+import ru.practicum.shareit.booking.model.BookingMapper;
+import ru.practicum.shareit.exceptions.ExceptionMessages;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Рассылает изменения бронирований арендатору и владельцу вещи через Server-Sent Events.
+ * У каждого подписчика своя ограниченная очередь: публикация никогда не ждёт клиента,
+ * а подписчик, не успевающий читать события, отключается при переполнении очереди
+ * и переподключается сам (EventSource делает это автоматически).
+ */
+@Slf4j
+@Component
+public class BookingStream {
+    public static final String BOOKING_EVENT = "booking";
+    public static final String SUBSCRIBERS_METRIC = "shareit.bookings.stream.subscribers";
+    public static final String DROPPED_METRIC = "shareit.bookings.stream.dropped";
+    private static final StreamEvent HEARTBEAT = new StreamEvent(null, null);
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    // Отправка блокируется на медленном клиенте, поэтому каждая очередь разбирается своим виртуальным потоком
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final UserService userService;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final Counter dropped;
+
+    public BookingStream(UserService userService,
+                         MeterRegistry meterRegistry,
+                         @Value("${shareit.bookings.stream.buffer-size:64}") int bufferSize,
+                         @Value("${shareit.bookings.stream.timeout:30m}") Duration timeout) {
+        this.userService = userService;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeout.toMillis();
+        this.dropped = meterRegistry.counter(DROPPED_METRIC);
+        meterRegistry.gauge(SUBSCRIBERS_METRIC, subscriberCount);
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        if (!userService.existsUser(userId)) {
+            throw new NotFoundException(String.format(ExceptionMessages.USER_NOT_FOUND_ERROR, userId));
+        }
+        return subscribe(userId, new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter subscribe(Long userId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(userId, emitter, bufferSize);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+
+        subscribers.compute(userId, (id, set) -> {
+            Set<Subscriber> result = set == null ? ConcurrentHashMap.newKeySet() : set;
+            result.add(subscriber);
+            return result;
+        });
+        subscriberCount.incrementAndGet();
+        return emitter;
+    }
+
+    /**
+     * Вызывается после коммита: событие получают арендатор и владелец вещи, если они подписаны.
+     */
+    public void publish(Booking booking) {
+        Set<Subscriber> booker = subscribers.get(booking.getBooker().getId());
+        Set<Subscriber> owner = subscribers.get(booking.getItem().getOwner().getId());
+        if (booker == null && owner == null) {
+            return;
+        }
+
+        StreamEvent event = new StreamEvent(BOOKING_EVENT, BookingMapper.toBookingDto(booking));
+        if (booker != null) {
+            booker.forEach(subscriber -> enqueue(subscriber, event));
+        }
+        if (owner != null) {
+            owner.forEach(subscriber -> enqueue(subscriber, event));
+        }
+    }
+
+    // Комментарий раз в интервал не даёт прокси закрыть простаивающее соединение и выявляет отключившихся клиентов
+    @Scheduled(fixedRateString = "${shareit.bookings.stream.heartbeat-interval:PT15S}")
+    public void sendHeartbeats() {
+        subscribers.values().forEach(set -> set.forEach(subscriber -> enqueue(subscriber, HEARTBEAT)));
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @PreDestroy
+    public void close() {
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter.complete()));
+        senders.shutdownNow();
+    }
+
+    private void enqueue(Subscriber subscriber, StreamEvent event) {
+        if (subscriber.closed.get()) {
+            return;
+        }
+        if (!subscriber.queue.offer(event)) {
+            dropped.increment();
+            log.warn("Подписчик {} не успевает читать события бронирований и отключён", subscriber.userId);
+            disconnect(subscriber);
+            return;
+        }
+        if (subscriber.sending.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        while (!subscriber.closed.get()) {
+            StreamEvent event = subscriber.queue.poll();
+            if (event == null) {
+                subscriber.sending.set(false);
+                // Событие могло встать в очередь между poll и сбросом флага
+                if (subscriber.queue.isEmpty() || !subscriber.sending.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+
+            try {
+                subscriber.emitter.send(event.toSse());
+            } catch (IOException | IllegalStateException e) {
+                remove(subscriber);
+                return;
+            }
+        }
+    }
+
+    private void disconnect(Subscriber subscriber) {
+        if (remove(subscriber)) {
+            subscriber.queue.clear();
+            // complete() ждёт монитор эмиттера, который держит send() застрявшего разборщика
+            senders.execute(subscriber.emitter::complete);
+        }
+    }
+
+    private boolean remove(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return false;
+        }
+
+        subscribers.computeIfPresent(subscriber.userId, (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+        subscriberCount.decrementAndGet();
+        return true;
+    }
+
+    private static final class Subscriber {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<StreamEvent> queue;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(Long userId, SseEmitter emitter, int bufferSize) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+
+    private record StreamEvent(String name, BookingDto booking) {
+        SseEmitter.SseEventBuilder toSse() {
+            if (name == null) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            return SseEmitter.event().name(name).data(booking);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package ru.practicum.shareit.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Ограниченный по размеру LRU-кэш с временем жизни записей.
+ * Попадания, промахи и вытеснения публикуются в Micrometer с тегом cache=name.
+ * Значение, загруженное во время инвалидации, в кэш не попадает.
+ */
+public class LruCache<K, V> {
+    private final long ttlNanos;
+    private final Map<K, Entry<V>> entries;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expirations;
+    private final Counter invalidations;
+    private long generation;
+
+    public LruCache(String name, int maxSize, Duration ttl, MeterRegistry registry) {
+        if (maxSize < 1 || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Некорректные параметры кэша " + name);
+        }
+
+        this.ttlNanos = ttl.toNanos();
+        this.hits = counter(registry, "cache.gets", name, "result", "hit");
+        this.misses = counter(registry, "cache.gets", name, "result", "miss");
+        this.sizeEvictions = counter(registry, "cache.evictions", name, "cause", "size");
+        this.expirations = counter(registry, "cache.evictions", name, "cause", "expired");
+        this.invalidations = counter(registry, "cache.evictions", name, "cause", "invalidated");
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (super.size() > maxSize) {
+                    sizeEvictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        Gauge.builder("cache.size", this, LruCache::size)
+                .tag("cache", name)
+                .register(registry);
+    }
+
+    public V get(K key, Supplier<V> loader) {
+        long loadedAt;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (System.nanoTime() - entry.createdAt() < ttlNanos) {
+                    hits.increment();
+                    return entry.value();
+                }
+                entries.remove(key);
+                expirations.increment();
+            }
+            misses.increment();
+            loadedAt = generation;
+        }
+
+        V value = loader.get();
+        synchronized (this) {
+            if (loadedAt == generation) {
+                entries.put(key, new Entry<>(value, System.nanoTime()));
+            }
+        }
+        return value;
+    }
+
+    // Проверка наличия живой записи без загрузки и без учёта в счётчиках
+    public synchronized boolean contains(K key) {
+        Entry<V> entry = entries.get(key);
+        return entry != null && System.nanoTime() - entry.createdAt() < ttlNanos;
+    }
+
+    public synchronized void invalidate(K key) {
+        generation++;
+        if (entries.remove(key) != null) {
+            invalidations.increment();
+        }
+    }
+
+    public synchronized void invalidateIf(Predicate<? super K> predicate) {
+        generation++;
+        Iterator<K> keys = entries.keySet().iterator();
+        while (keys.hasNext()) {
+            if (predicate.test(keys.next())) {
+                keys.remove();
+                invalidations.increment();
+            }
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        invalidations.increment(entries.size());
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static Counter counter(MeterRegistry registry, String metric, String name, String tag, String value) {
+        return Counter.builder(metric)
+                .tag("cache", name)
+                .tag(tag, value)
+                .register(registry);
+    }
+
+    private record Entry<V>(V value, long createdAt) {
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.comment.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Проекция отзыва для ленты: только выводимые поля, без сущностей вещи и автора.
+ */
+public interface CommentView {
+    Long getId();
+
+    String getText();
+
+    String getAuthorName();
+
+    LocalDateTime getCreated();
+}
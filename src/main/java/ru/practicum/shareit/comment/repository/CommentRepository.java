@@ -1,12 +1,36 @@
 package ru.practicum.shareit.comment.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.comment.model.Comment;
+import ru.practicum.shareit.comment.model.CommentView;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findAllByItemId(Long itemId);
+    // Не больше limit последних отзывов на каждую вещь владельца, как в карточке вещи
+    @Query("select c from Comment c join fetch c.author join (" +
+            "select l.id as id, row_number() over (partition by l.item.id order by l.created desc, l.id desc) as position " +
+            "from Comment l where l.item.owner.id = ?1" +
+            ") r on r.id = c.id where r.position <= ?2 " +
+            "order by c.created desc, c.id desc")
+    List<Comment> findLatestByItemOwnerId(Long ownerId, int limit);
+
+    long countByItemId(Long itemId);
+
+    @Query("select c.id as id, c.text as text, a.name as authorName, c.created as created " +
+            "from Comment c join c.author a where c.item.id = ?1 " +
+            "order by c.created desc, c.id desc")
+    List<CommentView> findFeedByItemId(Long itemId, Limit limit);
+
+    // Keyset-продолжение ленты: отзывы строго после (created, id) в порядке убывания
+    @Query("select c.id as id, c.text as text, a.name as authorName, c.created as created " +
+            "from Comment c join c.author a where c.item.id = ?1 " +
+            "and (c.created < ?2 or (c.created = ?2 and c.id < ?3)) " +
+            "order by c.created desc, c.id desc")
+    List<CommentView> findFeedByItemIdAfter(Long itemId, LocalDateTime created, Long id, Limit limit);
 }
\ No newline at end of file
@@ -2,12 +2,17 @@ package ru.practicum.shareit.comment.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.comment.model.Comment;
 import ru.practicum.shareit.comment.model.CommentDto;
 import ru.practicum.shareit.comment.model.CommentMapper;
+import ru.practicum.shareit.comment.model.CommentView;
 import ru.practicum.shareit.comment.repository.CommentRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.CursorCodec;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
@@ -18,15 +23,37 @@ import java.util.List;
 public class CommentService {
     private final CommentRepository commentRepository;
 
+    @Transactional
     public CommentDto createComment(Item item, CommentDto commentDto, User user) {
         Comment comment = CommentMapper.toComment(commentDto, item, user);
-        return CommentMapper.toCommentDto(commentRepository.saveAndFlush(comment));
+        return CommentMapper.toCommentDto(commentRepository.save(comment));
     }
 
-    public List<CommentDto> getItemComments(Long itemId) {
-        List<Comment> comments = commentRepository.findAllByItemId(itemId);
-        return comments.stream()
-                .map(CommentMapper::toCommentDto)
-                .toList();
+    // Читается на одну запись больше страницы, чтобы узнать, есть ли следующая
+    @Transactional(readOnly = true)
+    public CursorPage<CommentDto> getItemComments(Long itemId, int limit, String after) {
+        CursorCodec.validateLimit(limit);
+        CursorCodec.Position position = CursorCodec.decode(after, scope(itemId));
+        Limit pageLimit = Limit.of(limit + 1);
+        List<CommentView> comments = position == null
+                ? commentRepository.findFeedByItemId(itemId, pageLimit)
+                : commentRepository.findFeedByItemIdAfter(itemId, position.time(), position.id(), pageLimit);
+
+        String nextCursor = null;
+        if (comments.size() > limit) {
+            comments = comments.subList(0, limit);
+            CommentView last = comments.getLast();
+            nextCursor = CursorCodec.encode(scope(itemId), last.getCreated(), last.getId());
+        }
+        return new CursorPage<>(comments.stream().map(CommentMapper::toCommentDto).toList(), nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public long countItemComments(Long itemId) {
+        return commentRepository.countByItemId(itemId);
+    }
+
+    private static String scope(Long itemId) {
+        return "comments:" + itemId;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.cache.LruCache;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+
+/**
+ * Кэши пользователей и вещей по id для проверок на горячих путях.
+ * Закэшированные сущности отсоединены от сессии и не должны изменяться:
+ * пути обновления читают свежую копию из базы и сбрасывают запись после записи.
+ */
+@Configuration
+public class EntityCacheConfig {
+    @Bean
+    public LruCache<Long, User> userCache(MeterRegistry meterRegistry,
+                                          @Value("${shareit.cache.users.max-entries:10000}") int maxEntries,
+                                          @Value("${shareit.cache.users.ttl:10m}") Duration ttl) {
+        return new LruCache<>("users", maxEntries, ttl, meterRegistry);
+    }
+
+    @Bean
+    public LruCache<Long, Item> itemCache(MeterRegistry meterRegistry,
+                                          @Value("${shareit.cache.items.max-entries:10000}") int maxEntries,
+                                          @Value("${shareit.cache.items.ttl:10m}") Duration ttl) {
+        return new LruCache<>("items", maxEntries, ttl, meterRegistry);
+    }
+}
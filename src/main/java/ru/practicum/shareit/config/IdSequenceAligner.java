@@ -0,0 +1,61 @@
+package ru.practicum.shareit.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Продвигает последовательности id за максимальный id своих таблиц. В базе, заполненной
+ * до перехода с IDENTITY на последовательности, первые выделенные блоки иначе совпадут
+ * с уже существующими ключами. Последовательность только сдвигается вперёд, поэтому
+ * блоки, выделенные другими экземплярами приложения, не переиспользуются.
+ */
+@Slf4j
+@Component
+public class IdSequenceAligner {
+    // Шаг последовательностей в schema.sql и allocationSize сущностей
+    private static final int ALLOCATION_SIZE = 50;
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "users", "users_seq",
+            "items", "items_seq",
+            "bookings", "bookings_seq",
+            "comments", "comments_seq");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Dialect dialect;
+
+    // Фабрика сущностей создаётся после schema.sql, поэтому к этому моменту последовательности уже есть
+    public IdSequenceAligner(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+    }
+
+    @PostConstruct
+    public void align() {
+        SEQUENCES.forEach(this::align);
+    }
+
+    private void align(String table, String sequence) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        if (maxId == null) {
+            return;
+        }
+
+        // Pooled-оптимизатор Hibernate выдаёт id из (value - 50, value]; выбранный здесь блок просто пропускается
+        Long value = jdbcTemplate.queryForObject(dialect.getSequenceSupport().getSequenceNextValString(sequence),
+                Long.class);
+        if (value != null && value >= maxId) {
+            return;
+        }
+
+        long restartWith = maxId + ALLOCATION_SIZE;
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + restartWith);
+        log.info("Последовательность {} сдвинута за максимальный id таблицы {}: {}", sequence, table, maxId);
+    }
+}
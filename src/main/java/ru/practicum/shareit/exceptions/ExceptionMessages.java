@@ -9,8 +9,21 @@ public class ExceptionMessages {
     public static final String BOOKING_ITEM_IS_NOT_AVAILABLE = "Предмет недоступен для аренды";
     public static final String BOOKING_OWNER_CANT_BOOKED = "Владелец предмета не может арендовать его сам";
     public static final String BOOKING_END_BEFORE_START = "Время окончания бронирования должно быть после времени начала";
+    public static final String BOOKING_STATUS_TRANSITION_ERROR = "Бронирование в статусе %s нельзя перевести событием %s";
+    public static final String BOOKING_BATCH_SIZE_ERROR = "За один запрос можно обработать не более %d бронирований";
+    public static final String BOOKING_BATCH_DUPLICATE_ERROR = "Бронирование %d указано в запросе несколько раз";
+    public static final String BOOKING_DECISION_INVALID = "Не указан id бронирования или решение";
     public static final String BOOKING_GET_INFO_ERROR = "Только владелец или бронирующий может получить информацию о бронировании";
+    public static final String BULK_SIZE_ERROR = "За один запрос можно создать не более %d записей";
+    public static final String LOOKUP_SIZE_ERROR = "За один запрос можно найти не более %d записей";
+    public static final String LOOKUP_NULL_ID_ERROR = "Список id не должен содержать пустых значений";
+    public static final String EMAIL_DUPLICATE_ERROR = "Этот email уже используется";
+    public static final String SEARCH_PAGE_ERROR = "Параметр from должен быть неотрицательным, size — от 1 до %d";
+    public static final String SUGGEST_LIMIT_ERROR = "Число подсказок должно быть от 1 до %d";
+    public static final String SERVER_BUSY_ERROR = "Сервер перегружен, повторите запрос позже";
+    public static final String AVAILABILITY_RANGE_ERROR = "Конец периода должен быть позже его начала";
     public static final String NOT_FOUND_ITEM = "Предмет не найден";
     public static final String NOT_FOUND_USER = "Пользователь не найден";
+    public static final String ITEM_NOT_OWNER = "Пользователь не владелец предмета";
     public static final String NOT_WAS_RENT = "Пользователь не арендовал предмет или время аренды еще не вышло";
 }
\ No newline at end of file
@@ -1,18 +1,28 @@
 package ru.practicum.shareit.handler;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.validation.ValidationException;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.MessageSourceResolvable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.validation.ObjectError;
+import org.springframework.validation.method.ParameterValidationResult;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 import ru.practicum.shareit.exceptions.ConditionsNotMetException;
+import ru.practicum.shareit.exceptions.DuplicateException;
+import ru.practicum.shareit.exceptions.ExceptionMessages;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.WrongUserException;
+import ru.practicum.shareit.web.ConcurrencyLimitFilter;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -21,10 +31,16 @@ import java.util.Map;
 
 @Slf4j
 @RestControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
+    public static final String EXCEPTIONS_METRIC = "shareit.exceptions";
+
+    private final MeterRegistry meterRegistry;
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     @ResponseStatus(value = HttpStatus.BAD_REQUEST)
     public ResponseEntity<Object> handleInvalidParameterException(MethodArgumentNotValidException ex) {
+        count(ex, HttpStatus.BAD_REQUEST);
         List<String> errors = new ArrayList<>();
 
         for (FieldError error : ex.getBindingResult().getFieldErrors()) {
@@ -40,9 +56,25 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleMethodValidation(HandlerMethodValidationException ex) {
+        count(ex, HttpStatus.BAD_REQUEST);
+        List<String> errors = new ArrayList<>();
+        for (ParameterValidationResult result : ex.getAllValidationResults()) {
+            for (MessageSourceResolvable error : result.getResolvableErrors()) {
+                errors.add(result.getMethodParameter().getParameterName() + ": " + error.getDefaultMessage());
+            }
+        }
+
+        log.error("При обработке запроса возникли следующие нарушения валидации: {}", errors);
+        return new ErrorResponse("Validation Failed", errors);
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleValidation(ValidationException e) {
+        count(e, HttpStatus.BAD_REQUEST);
         log.warn("Ошибка валидации: {}", e.getMessage());
         return new ErrorResponse(e.getMessage());
     }
@@ -50,6 +82,15 @@ public class GlobalExceptionHandler {
     @ExceptionHandler
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ErrorResponse handleNotFoundException(final NotFoundException e) {
+        count(e, HttpStatus.NOT_FOUND);
+        log.info(e.getMessage());
+        return new ErrorResponse(e.getMessage());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleDuplicateException(final DuplicateException e) {
+        count(e, HttpStatus.CONFLICT);
         log.info(e.getMessage());
         return new ErrorResponse(e.getMessage());
     }
@@ -57,13 +98,25 @@ public class GlobalExceptionHandler {
     @ExceptionHandler
     @ResponseStatus(HttpStatus.FORBIDDEN)
     public ErrorResponse handleWrongUserExсeption(final WrongUserException e) {
+        count(e, HttpStatus.FORBIDDEN);
         log.info(e.getMessage());
         return new ErrorResponse(e.getMessage());
     }
 
+    // Пул не выдал соединение за connection-timeout: база перегружена, как и при отказе ConcurrencyLimitFilter
+    @ExceptionHandler
+    public ResponseEntity<ErrorResponse> handleCannotCreateTransaction(final CannotCreateTransactionException e) {
+        count(e, HttpStatus.SERVICE_UNAVAILABLE);
+        log.warn("Не удалось получить соединение с базой: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, ConcurrencyLimitFilter.RETRY_AFTER_SECONDS)
+                .body(new ErrorResponse(ExceptionMessages.SERVER_BUSY_ERROR));
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handleException(final Exception e) {
+        count(e, HttpStatus.INTERNAL_SERVER_ERROR);
         log.warn("Непредвиденная ошибка:", e);
         return new ErrorResponse("Непредвиденная ошибка");
     }
@@ -71,9 +124,16 @@ public class GlobalExceptionHandler {
     @ExceptionHandler
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public Map<String, String> dealWithDataDoNotExistException(ConditionsNotMetException e) {
+        count(e, HttpStatus.NOT_FOUND);
         Map<String, String> response = new HashMap<>();
         log.error("error", e.getMessage());
         response.put("error", e.getMessage());
         return response;
     }
+
+    private void count(Exception e, HttpStatus status) {
+        meterRegistry.counter(EXCEPTIONS_METRIC,
+                "exception", e.getClass().getSimpleName(),
+                "status", String.valueOf(status.value())).increment();
+    }
 }
\ No newline at end of file
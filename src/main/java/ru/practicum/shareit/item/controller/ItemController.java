@@ -2,7 +2,9 @@ package ru.practicum.shareit.item.controller;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -16,14 +18,21 @@ import org.springframework.web.bind.annotation.GetMapping;
 import ru.practicum.shareit.comment.model.CommentDto;
 import ru.practicum.shareit.comment.service.CommentService;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.lookup.LookupResult;
+import ru.practicum.shareit.pagination.CursorCodec;
+import ru.practicum.shareit.pagination.CursorPage;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/items")
 public class ItemController {
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
     private final ItemService itemService;
     private final CommentService commentService;
 
@@ -32,16 +41,42 @@ public class ItemController {
         return itemService.getUserItems(userId);
     }
 
+    @GetMapping(params = "ids")
+    public LookupResult<ItemDto> findAllById(@RequestParam List<Long> ids) {
+        return itemService.getItems(ids);
+    }
+
+    @PostMapping("/lookup")
+    public LookupResult<ItemDto> lookup(@RequestBody List<Long> ids) {
+        return itemService.getItems(ids);
+    }
+
     @GetMapping("/{id}")
     public ItemDto findById(@PathVariable Long id,
                             @RequestHeader("X-Sharer-User-Id") Long userId) {
-        return itemService.getItemDto(id);
+        return itemService.getItemDto(id, userId);
+    }
+
+    @GetMapping("/{id}/availability")
+    public List<AvailabilitySlotDto> findAvailability(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemService.getAvailability(id, from, to);
     }
 
     @GetMapping("/search")
     public List<ItemDto> search(@RequestParam String text,
+                                @RequestParam(defaultValue = "0") int from,
+                                @RequestParam(defaultValue = ItemService.DEFAULT_SEARCH_SIZE) int size,
                                 @RequestHeader("X-Sharer-User-Id") Long userId) {
-        return itemService.searchItems(text);
+        return itemService.searchItems(text, from, size);
+    }
+
+    @GetMapping("/suggest")
+    public List<String> suggest(@RequestParam String prefix,
+                                @RequestParam(defaultValue = "10") int limit) {
+        return itemService.suggest(prefix, limit);
     }
 
     @PostMapping
@@ -51,6 +86,13 @@ public class ItemController {
         return itemService.createItem(item, userId);
     }
 
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    public List<ItemDto> createAll(@RequestBody List<@Valid ItemDto> items,
+                                   @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return itemService.createItems(items, userId);
+    }
+
     @PatchMapping("/{id}")
     public ItemDto update(@PathVariable Long id,
                           @RequestBody ItemDto item,
@@ -65,7 +107,16 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}/comment")
-    public List<CommentDto> getItemComments(@PathVariable Long itemId) {
-        return commentService.getItemComments(itemId);
+    public ResponseEntity<List<CommentDto>> getItemComments(
+            @PathVariable Long itemId,
+            @RequestParam(required = false, defaultValue = CursorCodec.DEFAULT_LIMIT) Integer limit,
+            @RequestParam(required = false) String after) {
+        CursorPage<CommentDto> page = commentService.getItemComments(itemId, limit, after);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, String.valueOf(commentService.countItemComments(itemId)));
+        if (page.nextCursor() != null) {
+            response.header(CursorPage.NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.content());
     }
 }
\ No newline at end of file
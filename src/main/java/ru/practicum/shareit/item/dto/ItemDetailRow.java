@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Строка выборки карточки вещи: поля вещи и один из её отзывов с именем автора.
+ * Для вещи без отзывов поля отзыва равны null.
+ */
+public record ItemDetailRow(Long itemId, String name, String description, Boolean available, Long ownerId,
+                            Long commentId, String text, String authorName, LocalDateTime created) {
+}
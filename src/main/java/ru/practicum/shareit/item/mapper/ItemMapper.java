@@ -1,9 +1,12 @@
 package ru.practicum.shareit.item.mapper;
 
 import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.booking.model.BookingDto;
 import ru.practicum.shareit.comment.model.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDetailRow;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.IndexedItem;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
@@ -19,6 +22,15 @@ public class ItemMapper {
                 .build();
     }
 
+    public static ItemDto toItemDto(IndexedItem item) {
+        return ItemDto.builder()
+                .id(item.id())
+                .name(item.name())
+                .description(item.description())
+                .isAvailable(item.available())
+                .build();
+    }
+
     public static ItemDto toItemDto(Item item, List<CommentDto> comments) {
         ItemDto itemOwnerDto = ItemDto.builder()
                 .id(item.getId())
@@ -31,6 +43,36 @@ public class ItemMapper {
         return itemOwnerDto;
     }
 
+    public static ItemDto toItemDto(Item item, BookingDto lastBooking, BookingDto nextBooking, List<CommentDto> comments) {
+        ItemDto itemOwnerDto = toItemDto(item, comments);
+        itemOwnerDto.setLastBooking(lastBooking);
+        itemOwnerDto.setNextBooking(nextBooking);
+        return itemOwnerDto;
+    }
+
+    public static ItemDto toItemDto(List<ItemDetailRow> rows) {
+        ItemDetailRow first = rows.getFirst();
+        List<CommentDto> comments = rows.stream()
+                .filter(row -> row.commentId() != null)
+                .map(row -> CommentDto.builder()
+                        .id(row.commentId())
+                        .text(row.text())
+                        .itemId(row.itemId())
+                        .authorName(row.authorName())
+                        .created(row.created())
+                        .build())
+                .toList();
+
+        ItemDto itemDto = ItemDto.builder()
+                .id(first.itemId())
+                .name(first.name())
+                .description(first.description())
+                .isAvailable(first.available())
+                .build();
+        itemDto.setComments(comments);
+        return itemDto;
+    }
+
     public static Item toItem(ItemDto itemDto, User owner) {
         return Item.builder()
                 .id(itemDto.getId())
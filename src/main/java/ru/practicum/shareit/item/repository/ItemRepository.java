@@ -1,18 +1,32 @@
 package ru.practicum.shareit.item.repository;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.ItemDetailRow;
 import ru.practicum.shareit.item.model.Item;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findAllByOwnerId(Long ownerId);
 
-    @Query("select item from Item item " +
-            "where item.isAvailable = TRUE and (upper(item.name) like upper(concat('%', ?1, '%')) " +
-            "or upper(item.description) like upper(concat('%', ?1, '%')))")
-    List<Item> findAllBySearch(String search);
+    @Query("select item.id from Item item where item.owner.id = ?1")
+    List<Long> findIdsByOwnerId(Long ownerId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select item from Item item where item.id = ?1")
+    Optional<Item> findByIdForUpdate(Long id);
+
+    // Вещь и её последние отзывы с именами авторов одним запросом
+    @Query("select new ru.practicum.shareit.item.dto.ItemDetailRow(i.id, i.name, i.description, i.isAvailable, " +
+            "i.owner.id, c.id, c.text, a.name, c.created) " +
+            "from Item i left join Comment c on c.item = i left join c.author a " +
+            "where i.id = ?1 order by c.created desc, c.id desc")
+    List<ItemDetailRow> findDetailById(Long id, Limit latestComments);
 }
\ No newline at end of file
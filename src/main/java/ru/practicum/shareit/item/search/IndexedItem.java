@@ -0,0 +1,31 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Locale;
+
+public record IndexedItem(Long id, Long ownerId, String name, String description, boolean available,
+                          String normalizedName, String normalizedDescription) {
+
+    public static IndexedItem of(Item item) {
+        return new IndexedItem(
+                item.getId(),
+                item.getOwner().getId(),
+                item.getName(),
+                item.getDescription(),
+                Boolean.TRUE.equals(item.getIsAvailable()),
+                normalize(item.getName()),
+                normalize(item.getDescription())
+        );
+    }
+
+    public static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    // Попадает ли вещь в результаты поиска по запросу
+    public boolean visibleFor(String normalizedQuery) {
+        return available
+                && (normalizedName.contains(normalizedQuery) || normalizedDescription.contains(normalizedQuery));
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+/**
+ * Строит поисковый индекс и индекс подсказок при старте из одного чтения каталога вещей.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemIndexLoader {
+    private final ItemRepository itemRepository;
+    private final ItemSearchIndex searchIndex;
+    private final ItemSuggestIndex suggestIndex;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<Item> all = itemRepository.findAll();
+        searchIndex.rebuild(all);
+        suggestIndex.rebuild(all);
+    }
+}
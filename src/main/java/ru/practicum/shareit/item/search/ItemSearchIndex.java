@@ -0,0 +1,244 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.cache.LruCache;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Инвертированный индекс вещей по триграммам названия и описания.
+ * Кандидаты находятся пересечением списков триграмм запроса и затем проверяются
+ * на вхождение подстроки, что повторяет семантику прежнего LIKE '%text%'.
+ * Результаты ранжируются по релевантности: вхождение в название весит больше,
+ * чем в описание, и учитывается число вхождений.
+ * Страницы результатов кэшируются; при изменении вещи сбрасываются только запросы,
+ * в выдачу которых она входила или теперь входит.
+ */
+@Slf4j
+@Component
+public class ItemSearchIndex {
+    private static final int GRAM = 3;
+    private static final int NAME_WEIGHT = 10;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    // Лучший результат — с большим score, при равенстве — с меньшим id
+    private static final Comparator<ScoredItem> BY_RELEVANCE = Comparator
+            .comparingInt(ScoredItem::score)
+            .thenComparing(ScoredItem::id, Comparator.reverseOrder());
+
+    private final Map<Long, IndexedItem> items = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LruCache<SearchKey, List<IndexedItem>> cache;
+
+    public ItemSearchIndex(MeterRegistry meterRegistry,
+                           @Value("${shareit.search.cache.max-entries:1000}") int maxEntries,
+                           @Value("${shareit.search.cache.ttl:10m}") Duration ttl) {
+        this.cache = new LruCache<>("item-search", maxEntries, ttl, meterRegistry);
+    }
+
+    public void rebuild(Collection<Item> all) {
+        lock.writeLock().lock();
+        try {
+            items.clear();
+            postings.clear();
+            all.forEach(item -> add(IndexedItem.of(item)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        cache.invalidateAll();
+        log.info("Поисковый индекс построен: {} вещей", all.size());
+    }
+
+    public void put(Item item) {
+        IndexedItem indexed = IndexedItem.of(item);
+        IndexedItem previous;
+        lock.writeLock().lock();
+        try {
+            previous = removeById(indexed.id());
+            add(indexed);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        evict(previous, indexed);
+    }
+
+    public void remove(Long itemId) {
+        IndexedItem removed;
+        lock.writeLock().lock();
+        try {
+            removed = removeById(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        evict(removed, null);
+    }
+
+    public void removeByOwner(Long ownerId) {
+        List<IndexedItem> removed;
+        lock.writeLock().lock();
+        try {
+            removed = items.values().stream()
+                    .filter(item -> item.ownerId().equals(ownerId))
+                    .toList();
+            removed.forEach(item -> removeById(item.id()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        removed.forEach(item -> evict(item, null));
+    }
+
+    /**
+     * Возвращает страницу [from, from + size) самых релевантных доступных вещей.
+     * Отбор ведётся ограниченной кучей на from + size элементов,
+     * полный список совпадений не строится.
+     */
+    public List<IndexedItem> search(String text, int from, int size) {
+        String query = IndexedItem.normalize(text);
+        if (query.isEmpty()) {
+            return List.of();
+        }
+        return cache.get(new SearchKey(query, from, size), () -> topK(query, from, size));
+    }
+
+    private List<IndexedItem> topK(String query, int from, int size) {
+        int limit = (int) Math.min((long) from + size, Integer.MAX_VALUE);
+        PriorityQueue<ScoredItem> top = new PriorityQueue<>(BY_RELEVANCE);
+        lock.readLock().lock();
+        try {
+            for (Long id : candidates(query)) {
+                IndexedItem item = items.get(id);
+                if (!item.available()) {
+                    continue;
+                }
+                int score = score(item, query);
+                if (score == 0) {
+                    continue;
+                }
+                ScoredItem scored = new ScoredItem(item, score);
+                if (top.size() < limit) {
+                    top.add(scored);
+                } else if (BY_RELEVANCE.compare(scored, top.peek()) > 0) {
+                    top.poll();
+                    top.add(scored);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Куча отдаёт элементы от худшего к лучшему, заполняем страницу с конца
+        int total = top.size();
+        IndexedItem[] page = new IndexedItem[Math.max(total - from, 0)];
+        for (int i = total - 1; i >= from; i--) {
+            page[i - from] = top.poll().item();
+        }
+        return List.of(page);
+    }
+
+    private static int score(IndexedItem item, String query) {
+        return NAME_WEIGHT * occurrences(item.normalizedName(), query)
+                + DESCRIPTION_WEIGHT * occurrences(item.normalizedDescription(), query);
+    }
+
+    private static int occurrences(String text, String query) {
+        int count = 0;
+        for (int i = text.indexOf(query); i >= 0; i = text.indexOf(query, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+
+    // Для запросов короче триграммы кандидаты — все вещи
+    private Iterable<Long> candidates(String query) {
+        if (query.length() < GRAM) {
+            return items.keySet();
+        }
+
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : grams(query)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return List.of();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        Set<Long> result = new HashSet<>(lists.getFirst());
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    private void add(IndexedItem item) {
+        items.put(item.id(), item);
+        for (String gram : grams(item)) {
+            postings.computeIfAbsent(gram, g -> new HashSet<>()).add(item.id());
+        }
+    }
+
+    private IndexedItem removeById(Long itemId) {
+        IndexedItem item = items.remove(itemId);
+        if (item == null) {
+            return null;
+        }
+        for (String gram : grams(item)) {
+            Set<Long> ids = postings.get(gram);
+            ids.remove(itemId);
+            if (ids.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+        return item;
+    }
+
+    // Сбрасывает запросы, в выдаче которых вещь была до изменения или должна появиться после
+    private void evict(IndexedItem before, IndexedItem after) {
+        // Недоступная вещь не попадает ни в одну выдачу
+        if ((before == null || !before.available()) && (after == null || !after.available())) {
+            return;
+        }
+        cache.invalidateIf(key -> before != null && before.visibleFor(key.query())
+                || after != null && after.visibleFor(key.query()));
+    }
+
+    private record SearchKey(String query, int from, int size) {
+    }
+
+    private record ScoredItem(IndexedItem item, int score) {
+        Long id() {
+            return item.id();
+        }
+    }
+
+    private static Set<String> grams(IndexedItem item) {
+        Set<String> grams = grams(item.normalizedName());
+        grams.addAll(grams(item.normalizedDescription()));
+        return grams;
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+}
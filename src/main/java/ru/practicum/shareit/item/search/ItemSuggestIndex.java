@@ -0,0 +1,189 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Префиксное дерево слов из названий доступных вещей для автодополнения.
+ * Каждый узел хранит заранее посчитанный топ слов своего поддерева по числу вещей,
+ * поэтому подсказка по префиксу — проход по его символам без обхода поддерева.
+ */
+@Slf4j
+@Component
+public class ItemSuggestIndex {
+    private static final Pattern DELIMITER = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Comparator<TokenCount> BY_POPULARITY = Comparator
+            .comparingInt(TokenCount::count).reversed()
+            .thenComparing(TokenCount::token);
+
+    private final int topSize;
+    private final Map<Long, IndexedTokens> items = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Node root = new Node();
+
+    public ItemSuggestIndex(@Value("${shareit.suggest.top-size:10}") int topSize) {
+        this.topSize = topSize;
+    }
+
+    public int getTopSize() {
+        return topSize;
+    }
+
+    public void rebuild(Collection<Item> all) {
+        lock.writeLock().lock();
+        try {
+            items.clear();
+            root = new Node();
+            all.forEach(this::putLocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Индекс подсказок построен: {} вещей", items.size());
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        String normalized = IndexedItem.normalize(prefix).strip();
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < normalized.length() && node != null; i++) {
+                node = node.children.get(normalized.charAt(i));
+            }
+            if (node == null) {
+                return List.of();
+            }
+            return node.top.stream()
+                    .limit(limit)
+                    .map(TokenCount::token)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void put(Item item) {
+        lock.writeLock().lock();
+        try {
+            putLocked(item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long itemId) {
+        lock.writeLock().lock();
+        try {
+            IndexedTokens removed = items.remove(itemId);
+            if (removed != null) {
+                removed.tokens().forEach(token -> update(token, -1));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeByOwner(Long ownerId) {
+        lock.writeLock().lock();
+        try {
+            items.entrySet().removeIf(entry -> {
+                if (!entry.getValue().ownerId().equals(ownerId)) {
+                    return false;
+                }
+                entry.getValue().tokens().forEach(token -> update(token, -1));
+                return true;
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Меняет счётчики только для слов, которые появились или исчезли
+    private void putLocked(Item item) {
+        Set<String> tokens = Boolean.TRUE.equals(item.getIsAvailable()) ? tokens(item.getName()) : Set.of();
+        IndexedTokens previous = items.put(item.getId(), new IndexedTokens(item.getOwner().getId(), tokens));
+        Set<String> previousTokens = previous == null ? Set.of() : previous.tokens();
+        for (String token : previousTokens) {
+            if (!tokens.contains(token)) {
+                update(token, -1);
+            }
+        }
+        for (String token : tokens) {
+            if (!previousTokens.contains(token)) {
+                update(token, 1);
+            }
+        }
+    }
+
+    private void update(String token, int delta) {
+        Node[] path = new Node[token.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < token.length(); i++) {
+            path[i + 1] = path[i].children.computeIfAbsent(token.charAt(i), c -> new Node());
+        }
+        Node terminal = path[token.length()];
+        terminal.token = token;
+        terminal.count += delta;
+
+        for (int i = token.length(); i >= 0; i--) {
+            Node node = path[i];
+            if (i > 0 && node.count == 0 && node.children.isEmpty()) {
+                path[i - 1].children.remove(token.charAt(i - 1));
+                continue;
+            }
+            recomputeTop(node);
+        }
+    }
+
+    private void recomputeTop(Node node) {
+        List<TokenCount> candidates = new ArrayList<>();
+        if (node.count > 0) {
+            candidates.add(new TokenCount(node.token, node.count));
+        }
+        for (Node child : node.children.values()) {
+            candidates.addAll(child.top);
+        }
+        candidates.sort(BY_POPULARITY);
+        node.top = List.copyOf(candidates.subList(0, Math.min(topSize, candidates.size())));
+    }
+
+    private static Set<String> tokens(String name) {
+        Set<String> tokens = new HashSet<>();
+        for (String token : DELIMITER.split(IndexedItem.normalize(name))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private record IndexedTokens(Long ownerId, Set<String> tokens) {
+    }
+
+    private record TokenCount(String token, int count) {
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private String token;
+        private int count;
+        private List<TokenCount> top = List.of();
+    }
+}
@@ -1,10 +1,20 @@
 package ru.practicum.shareit.item.service;
 
 import jakarta.validation.ValidationException;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.availability.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.availability.BookingInterval;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityCache;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingDto;
+import ru.practicum.shareit.booking.model.BookingMapper;
+import ru.practicum.shareit.booking.model.BookingStatusType;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.cache.LruCache;
 import ru.practicum.shareit.comment.model.Comment;
 import ru.practicum.shareit.comment.model.CommentDto;
 import ru.practicum.shareit.comment.model.CommentMapper;
@@ -14,50 +24,172 @@ import ru.practicum.shareit.exceptions.ExceptionMessages;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
+import ru.practicum.shareit.item.dto.ItemDetailRow;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.lookup.LookupResult;
+import ru.practicum.shareit.item.search.ItemSuggestIndex;
+import ru.practicum.shareit.transaction.TransactionCallbacks;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class ItemService {
+    public static final String DEFAULT_SEARCH_SIZE = "20";
+    public static final int MAX_SEARCH_SIZE = 100;
+
+    private static final int MAX_BULK_SIZE = 1000;
+    private static final int DEFAULT_AVAILABILITY_DAYS = 30;
+    private static final Set<BookingStatusType> FREE_STATUSES =
+            EnumSet.of(BookingStatusType.REJECTED, BookingStatusType.CANCELLED);
+
     private final UserService userService;
     private final ItemRepository itemRepository;
     private final CommentRepository commentRepository;
     private final BookingRepository bookingRepository;
+    private final ItemAvailabilityCache availabilityCache;
+    private final BookingAvailabilityIndex availabilityIndex;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemSuggestIndex itemSuggestIndex;
+    private final LruCache<Long, Item> itemCache;
+    private final int latestComments;
 
-    public ItemDto getItemDto(Long itemId) {
+    public ItemService(UserService userService,
+                       ItemRepository itemRepository,
+                       CommentRepository commentRepository,
+                       BookingRepository bookingRepository,
+                       ItemAvailabilityCache availabilityCache,
+                       BookingAvailabilityIndex availabilityIndex,
+                       ItemSearchIndex itemSearchIndex,
+                       ItemSuggestIndex itemSuggestIndex,
+                       LruCache<Long, Item> itemCache,
+                       @Value("${shareit.items.comments.latest:50}") int latestComments) {
+        this.userService = userService;
+        this.itemRepository = itemRepository;
+        this.commentRepository = commentRepository;
+        this.bookingRepository = bookingRepository;
+        this.availabilityCache = availabilityCache;
+        this.availabilityIndex = availabilityIndex;
+        this.itemSearchIndex = itemSearchIndex;
+        this.itemSuggestIndex = itemSuggestIndex;
+        this.itemCache = itemCache;
+        this.latestComments = latestComments;
+    }
 
-        List<CommentDto> commentDtos = commentRepository.findAllByItemId(itemId)
-                .stream()
-                .map(CommentMapper::toCommentDto)
-                .toList();
+    // Вещь и отзывы читаются одним запросом, бронирования — вторым и только для владельца
+    @Transactional(readOnly = true)
+    public ItemDto getItemDto(Long itemId, Long userId) {
+        List<ItemDetailRow> rows = itemRepository.findDetailById(itemId, Limit.of(latestComments));
+        if (rows.isEmpty()) {
+            throw new NotFoundException(String.format(ExceptionMessages.ITEM_NOT_FOUND_ERROR, itemId));
+        }
 
-        return ItemMapper.toItemDto(getItem(itemId), commentDtos);
+        ItemDto itemDto = ItemMapper.toItemDto(rows);
+        if (rows.getFirst().ownerId().equals(userId)) {
+            LocalDateTime now = LocalDateTime.now();
+            ItemBookings bookings = toItemBookings(
+                    bookingRepository.findLastAndNextByItemIdIn(List.of(itemId), BookingStatusType.APPROVED, now), now)
+                    .getOrDefault(itemId, ItemBookings.EMPTY);
+            itemDto.setLastBooking(bookings.last());
+            itemDto.setNextBooking(bookings.next());
+        }
+        return itemDto;
     }
 
+    // Количество запросов не зависит от числа вещей: вещи, бронирования и отзывы читаются по одному разу
+    @Transactional(readOnly = true)
     public List<ItemDto> getUserItems(Long userId) {
         userService.getUser(userId);
-        return itemRepository.findAllByOwnerId(userId)
+        List<Item> items = itemRepository.findAllByOwnerId(userId);
+        if (items.isEmpty()) {
+            return List.of();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, ItemBookings> bookings = toItemBookings(
+                bookingRepository.findLastAndNextByItemOwnerId(userId, BookingStatusType.APPROVED, now), now);
+        Map<Long, List<CommentDto>> comments = commentRepository.findLatestByItemOwnerId(userId, latestComments)
                 .stream()
-                .map(ItemMapper::toItemDto)
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(CommentMapper::toCommentDto, Collectors.toList())));
+
+        return items.stream()
+                .map(item -> {
+                    ItemBookings itemBookings = bookings.getOrDefault(item.getId(), ItemBookings.EMPTY);
+                    return ItemMapper.toItemDto(item, itemBookings.last(), itemBookings.next(),
+                            comments.getOrDefault(item.getId(), List.of()));
+                })
                 .toList();
     }
 
+    private Map<Long, ItemBookings> toItemBookings(List<Booking> lastAndNext, LocalDateTime now) {
+        Map<Long, ItemBookings> result = new HashMap<>();
+        for (Booking booking : lastAndNext) {
+            ItemBookings current = result.getOrDefault(booking.getItem().getId(), ItemBookings.EMPTY);
+            BookingDto bookingDto = BookingMapper.toBookingDto(booking);
+            result.put(booking.getItem().getId(), booking.getStart().isAfter(now)
+                    ? new ItemBookings(current.last(), bookingDto)
+                    : new ItemBookings(bookingDto, current.next()));
+        }
+        return result;
+    }
+
+    // Один запрос IN на весь список
+    @Transactional(readOnly = true)
+    public LookupResult<ItemDto> getItems(Collection<Long> ids) {
+        List<Long> distinctIds = LookupResult.distinctIds(ids);
+        return LookupResult.of(distinctIds, itemRepository.findAllById(distinctIds), Item::getId, ItemMapper::toItemDto);
+    }
+
+    @Transactional
     public ItemDto createItem(ItemDto itemDto, Long userId) {
-        userService.getUser(userId);
-        return ItemMapper.toItemDto(itemRepository.saveAndFlush(ItemMapper.toItem(itemDto, userService.getUser(userId))));
+        Item item = itemRepository.save(ItemMapper.toItem(itemDto, userService.getUser(userId)));
+        TransactionCallbacks.afterCommit(() -> indexItem(item));
+        return ItemMapper.toItemDto(item);
+    }
+
+    @Transactional
+    public List<ItemDto> createItems(List<ItemDto> itemDtos, Long userId) {
+        if (itemDtos.size() > MAX_BULK_SIZE) {
+            throw new ValidationException(String.format(ExceptionMessages.BULK_SIZE_ERROR, MAX_BULK_SIZE));
+        }
+
+        User owner = userService.getUser(userId);
+        List<Item> items = itemRepository.saveAll(itemDtos.stream()
+                .map(itemDto -> ItemMapper.toItem(itemDto, owner))
+                .toList());
+        TransactionCallbacks.afterCommit(() -> items.forEach(this::indexItem));
+        return items.stream()
+                .map(ItemMapper::toItemDto)
+                .toList();
     }
 
+    @Transactional
     public ItemDto updateItem(Long id, ItemDto itemDto, Long userId) {
-        userIsOwner(id, userId);
+        if (userId == null) {
+            throw new ConditionsNotMetException(ExceptionMessages.NOT_FOUND_USER);
+        }
 
-        Item item = getItem(id);
+        // Изменяется свежая копия, а не разделяемая запись кэша: в этой сессии она ещё не загружалась
+        Item item = itemRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException(String.format(ExceptionMessages.ITEM_NOT_FOUND_ERROR, id)));
+        if (!item.getOwner().getId().equals(userId)) {
+            throw new ConditionsNotMetException(ExceptionMessages.ITEM_NOT_OWNER);
+        }
         if (itemDto.getName() != null) {
             item.setName(itemDto.getName());
         }
@@ -68,30 +200,100 @@ public class ItemService {
             item.setIsAvailable(itemDto.getIsAvailable());
         }
 
-        return ItemMapper.toItemDto(itemRepository.saveAndFlush(item));
+        // UPDATE выполнится при коммите по результатам проверки изменений
+        TransactionCallbacks.afterCommit(() -> {
+            itemCache.invalidate(id);
+            indexItem(item);
+        });
+        return ItemMapper.toItemDto(item);
     }
 
+    @Transactional
     public void deleteItem(Long itemId, Long userId) {
         userIsOwner(itemId, userId);
         itemRepository.deleteById(itemId);
+        TransactionCallbacks.afterCommit(() -> {
+            itemCache.invalidate(itemId);
+            // Бронирования вещи удаляются каскадом в БД
+            availabilityIndex.removeItem(itemId);
+            availabilityCache.invalidate(itemId);
+            itemSearchIndex.remove(itemId);
+            itemSuggestIndex.remove(itemId);
+        });
+    }
+
+    private void indexItem(Item item) {
+        itemSearchIndex.put(item);
+        itemSuggestIndex.put(item);
     }
 
-    public List<ItemDto> searchItems(String text) {
+    public List<ItemDto> searchItems(String text, int from, int size) {
+        if (from < 0 || size < 1 || size > MAX_SEARCH_SIZE) {
+            throw new ValidationException(String.format(ExceptionMessages.SEARCH_PAGE_ERROR, MAX_SEARCH_SIZE));
+        }
         if (text == null || text.isBlank()) {
             return List.of();
         }
-        return itemRepository.findAllBySearch(text).stream()
+        return itemSearchIndex.search(text, from, size).stream()
                 .map(ItemMapper::toItemDto)
                 .toList();
     }
 
+    public List<String> suggest(String prefix, int limit) {
+        if (limit < 1 || limit > itemSuggestIndex.getTopSize()) {
+            throw new ValidationException(String.format(ExceptionMessages.SUGGEST_LIMIT_ERROR,
+                    itemSuggestIndex.getTopSize()));
+        }
+        return itemSuggestIndex.suggest(prefix, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public List<AvailabilitySlotDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime periodStart = from != null ? from : LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        LocalDateTime periodEnd = to != null ? to : periodStart.plusDays(DEFAULT_AVAILABILITY_DAYS);
+        if (!periodEnd.isAfter(periodStart)) {
+            throw new ValidationException(ExceptionMessages.AVAILABILITY_RANGE_ERROR);
+        }
+        if (!existsItem(itemId)) {
+            throw new NotFoundException(String.format(ExceptionMessages.ITEM_NOT_FOUND_ERROR, itemId));
+        }
+
+        return availabilityCache.get(itemId, periodStart, periodEnd, () -> findFreeSlots(itemId, periodStart, periodEnd));
+    }
+
+    // Заметание по отсортированным по началу занятым интервалам: свободно всё, что между ними
+    private List<AvailabilitySlotDto> findFreeSlots(Long itemId, LocalDateTime from, LocalDateTime to) {
+        List<AvailabilitySlotDto> slots = new ArrayList<>();
+        LocalDateTime cursor = from;
+        for (BookingInterval busy : bookingRepository.findAllIntervalsByItemInRange(itemId, FREE_STATUSES, from, to)) {
+            if (busy.start().isAfter(cursor)) {
+                slots.add(new AvailabilitySlotDto(cursor, busy.start()));
+            }
+            if (busy.end().isAfter(cursor)) {
+                cursor = busy.end();
+            }
+        }
+        if (cursor.isBefore(to)) {
+            slots.add(new AvailabilitySlotDto(cursor, to));
+        }
+        return slots;
+    }
+
+    private record ItemBookings(BookingDto last, BookingDto next) {
+        private static final ItemBookings EMPTY = new ItemBookings(null, null);
+    }
+
     public Item getItem(Long id) {
         if (id == null) {
             throw new ConditionsNotMetException(ExceptionMessages.NOT_FOUND_ITEM);
         }
 
-        return itemRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException(String.format(ExceptionMessages.ITEM_NOT_FOUND_ERROR, id)));
+        return itemCache.get(id, () -> itemRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException(String.format(ExceptionMessages.ITEM_NOT_FOUND_ERROR, id))));
+    }
+
+    public boolean existsItem(Long id) {
+        return id != null && (itemCache.contains(id) || itemRepository.existsById(id));
     }
 
     private void userIsOwner(Long id, Long userId) {
@@ -100,10 +302,11 @@ public class ItemService {
         }
 
         if (!getItem(id).getOwner().getId().equals(userId)) {
-            throw new ConditionsNotMetException("Пользователь не владелец предмета");
+            throw new ConditionsNotMetException(ExceptionMessages.ITEM_NOT_OWNER);
         }
     }
 
+    @Transactional
     public CommentDto createItemComment(Long itemId, CommentDto commentDto, Long userId) {
         Item item = getItem(itemId);
         User user = userService.getUser(userId);
@@ -113,6 +316,6 @@ public class ItemService {
 
 
         Comment comment = CommentMapper.toComment(commentDto, item, user);
-        return CommentMapper.toCommentDto(commentRepository.saveAndFlush(comment));
+        return CommentMapper.toCommentDto(commentRepository.save(comment));
     }
 }
\ No newline at end of file
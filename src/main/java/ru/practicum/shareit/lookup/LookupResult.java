@@ -0,0 +1,48 @@
+package ru.practicum.shareit.lookup;
+
+import jakarta.validation.ValidationException;
+import ru.practicum.shareit.exceptions.ExceptionMessages;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Ответ пакетного поиска по id: найденные записи в порядке запроса и id, которых нет.
+ */
+public record LookupResult<T>(List<T> found, List<Long> missingIds) {
+    public static final int MAX_IDS = 1000;
+
+    // Повторяющиеся id схлопываются, порядок первого вхождения сохраняется
+    public static List<Long> distinctIds(Collection<Long> ids) {
+        if (ids.size() > MAX_IDS) {
+            throw new ValidationException(String.format(ExceptionMessages.LOOKUP_SIZE_ERROR, MAX_IDS));
+        }
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new ValidationException(ExceptionMessages.LOOKUP_NULL_ID_ERROR);
+        }
+        return List.copyOf(new LinkedHashSet<>(ids));
+    }
+
+    public static <E, T> LookupResult<T> of(List<Long> ids, Collection<E> entities,
+                                            Function<E, Long> idGetter, Function<E, T> mapper) {
+        Map<Long, E> byId = entities.stream()
+                .collect(Collectors.toMap(idGetter, Function.identity()));
+        List<T> found = new ArrayList<>(byId.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            E entity = byId.get(id);
+            if (entity == null) {
+                missing.add(id);
+            } else {
+                found.add(mapper.apply(entity));
+            }
+        }
+        return new LookupResult<>(found, missing);
+    }
+}
@@ -0,0 +1,78 @@
+package ru.practicum.shareit.metrics;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Считает SQL-запросы, которые Hibernate готовит в текущем потоке между
+ * {@link #start()} и {@link #stop()}. Текст запросов сохраняется только после
+ * {@link #startWithSql()} — это нужно тестам, а не каждому HTTP-запросу.
+ * Регистрируется как StatementInspector фабрики сессий.
+ */
+@Component
+public class StatementRecorder implements StatementInspector, HibernatePropertiesCustomizer {
+    private final ThreadLocal<Statements> statements = new ThreadLocal<>();
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Statements recorded = statements.get();
+        if (recorded != null) {
+            recorded.add(sql);
+        }
+        return sql;
+    }
+
+    public boolean isRecording() {
+        return statements.get() != null;
+    }
+
+    public void start() {
+        statements.set(new Statements(null));
+    }
+
+    public void startWithSql() {
+        statements.set(new Statements(new ArrayList<>()));
+    }
+
+    public Statements stop() {
+        Statements recorded = statements.get();
+        statements.remove();
+        return recorded == null ? new Statements(null) : recorded;
+    }
+
+    public static final class Statements {
+        private final List<String> sql;
+        private int count;
+
+        private Statements(List<String> sql) {
+            this.sql = sql;
+        }
+
+        private void add(String statement) {
+            count++;
+            if (sql != null) {
+                sql.add(statement);
+            }
+        }
+
+        public int count() {
+            return count;
+        }
+
+        // Пусто, если запись начата через start()
+        public List<String> sql() {
+            return sql == null ? List.of() : sql;
+        }
+    }
+}
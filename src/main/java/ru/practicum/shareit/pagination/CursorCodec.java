@@ -0,0 +1,75 @@
+package ru.practicum.shareit.pagination;
+
+import jakarta.validation.ValidationException;
+import lombok.experimental.UtilityClass;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Кодирует позицию keyset-пагинации по паре (время, id) в непрозрачный для клиента токен.
+ * Токен привязан к области выдачи (списку, фильтру и направлению сортировки):
+ * курсор, полученный для другого запроса, отклоняется, а не даёт чужую страницу.
+ */
+@UtilityClass
+public class CursorCodec {
+    public static final String DEFAULT_LIMIT = "100";
+    public static final int MAX_LIMIT = 1000;
+
+    private static final String ID = "id";
+    private static final String SEPARATOR = "|";
+
+    public static String encode(String scope, KeysetScrollPosition position, String timeProperty) {
+        Map<String, ?> keys = position.getKeys();
+        return encode(scope, (LocalDateTime) keys.get(timeProperty), (Long) keys.get(ID));
+    }
+
+    public static String encode(String scope, LocalDateTime time, Long id) {
+        String raw = scope + SEPARATOR + time + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ScrollPosition decode(String cursor, String scope, String timeProperty) {
+        Position position = decode(cursor, scope);
+        if (position == null) {
+            return ScrollPosition.keyset();
+        }
+        return ScrollPosition.forward(Map.of(timeProperty, position.time(), ID, position.id()));
+    }
+
+    // Позиция курсора для запросов с ручным keyset-условием; null для первой страницы
+    public static Position decode(String cursor, String scope) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        String[] parts;
+        Position position;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            parts = raw.split(Pattern.quote(SEPARATOR), -1);
+            position = new Position(LocalDateTime.parse(parts[1]), Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            throw new ValidationException("Некорректный курсор пагинации: " + cursor);
+        }
+
+        if (parts.length != 3 || !parts[0].equals(scope)) {
+            throw new ValidationException("Курсор пагинации получен для другого запроса: " + cursor);
+        }
+        return position;
+    }
+
+    public static void validateLimit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ValidationException("Размер страницы должен быть от 1 до " + MAX_LIMIT);
+        }
+    }
+
+    public record Position(LocalDateTime time, Long id) {
+    }
+}
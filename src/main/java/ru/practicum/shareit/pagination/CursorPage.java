@@ -0,0 +1,8 @@
+package ru.practicum.shareit.pagination;
+
+import java.util.List;
+
+public record CursorPage<T>(List<T> content, String nextCursor) {
+    // Заголовок ответа с курсором следующей страницы
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+}
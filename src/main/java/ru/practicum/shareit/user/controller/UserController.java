@@ -10,11 +10,15 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.lookup.LookupResult;
 import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.util.List;
+
 @RestController
 @RequiredArgsConstructor
 @RequestMapping(path = "/users")
@@ -26,12 +30,28 @@ public class UserController {
         return userService.getItemDto(id);
     }
 
+    @GetMapping(params = "ids")
+    public LookupResult<UserDto> findAllById(@RequestParam List<Long> ids) {
+        return userService.getUsers(ids);
+    }
+
+    @PostMapping("/lookup")
+    public LookupResult<UserDto> lookup(@RequestBody List<Long> ids) {
+        return userService.getUsers(ids);
+    }
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public UserDto create(@RequestBody @Valid UserDto user) {
         return userService.createUser(user);
     }
 
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    public List<UserDto> createAll(@RequestBody List<@Valid UserDto> users) {
+        return userService.createUsers(users);
+    }
+
     @PatchMapping("/{id}")
     public UserDto update(@PathVariable Long id,
                           @RequestBody UserDto user) {
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.user.index;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Индекс email → id пользователя для быстрого отсева очевидных дубликатов.
+ * Источник истины — ограничение UQ_USER_EMAIL: попадание в индекс лишь повод
+ * проверить email в базе, промах означает, что запись можно пробовать сразу.
+ */
+@Slf4j
+@Component
+public class UserEmailIndex {
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final Map<String, Long> idsByEmail = new HashMap<>();
+    private final Map<Long, String> emailsById = new HashMap<>();
+
+    public UserEmailIndex(UserRepository userRepository,
+                          @Value("${shareit.users.email-index.enabled:true}") boolean enabled) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+
+        synchronized (this) {
+            idsByEmail.clear();
+            emailsById.clear();
+            userRepository.findAll().forEach(this::put);
+        }
+        log.info("Индекс email загружен: {} пользователей", emailsById.size());
+    }
+
+    // null, если email не встречался или индекс выключен
+    public synchronized Long findOwner(String email) {
+        return enabled ? idsByEmail.get(email) : null;
+    }
+
+    public synchronized void put(User user) {
+        if (!enabled) {
+            return;
+        }
+
+        String previous = emailsById.put(user.getId(), user.getEmail());
+        if (previous != null && !previous.equals(user.getEmail())) {
+            idsByEmail.remove(previous, user.getId());
+        }
+        idsByEmail.put(user.getEmail(), user.getId());
+    }
+
+    public synchronized void remove(Long userId) {
+        String email = emailsById.remove(userId);
+        if (email != null) {
+            idsByEmail.remove(email, userId);
+        }
+    }
+}
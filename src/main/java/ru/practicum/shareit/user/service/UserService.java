@@ -1,67 +1,189 @@
 package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
+import jakarta.validation.ValidationException;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.availability.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityCache;
+import ru.practicum.shareit.cache.LruCache;
 import ru.practicum.shareit.exceptions.ConditionsNotMetException;
 import ru.practicum.shareit.exceptions.DuplicateException;
 import ru.practicum.shareit.exceptions.ExceptionMessages;
 import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.lookup.LookupResult;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSuggestIndex;
+import ru.practicum.shareit.transaction.TransactionCallbacks;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.index.UserEmailIndex;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class UserService {
+    private static final int MAX_BULK_SIZE = 1000;
+    private static final String EMAIL_CONSTRAINT = "UQ_USER_EMAIL";
+
     private final UserRepository userRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemSuggestIndex itemSuggestIndex;
+    private final LruCache<Long, User> userCache;
+    private final LruCache<Long, Item> itemCache;
+    private final UserEmailIndex emailIndex;
+    private final ItemRepository itemRepository;
+    private final BookingAvailabilityIndex availabilityIndex;
+    private final ItemAvailabilityCache availabilityCache;
 
+    @Transactional(readOnly = true)
     public UserDto getItemDto(Long id) {
         return UserMapper.toUserDto(getUser(id));
     }
 
+    // Один запрос IN на весь список
+    @Transactional(readOnly = true)
+    public LookupResult<UserDto> getUsers(Collection<Long> ids) {
+        List<Long> distinctIds = LookupResult.distinctIds(ids);
+        return LookupResult.of(distinctIds, userRepository.findAllById(distinctIds), User::getId, UserMapper::toUserDto);
+    }
+
+    // Уникальность email проверяет ограничение в базе: запись — один INSERT без предварительного SELECT
+    @Transactional
     public UserDto createUser(UserDto userDto) {
         User user = UserMapper.toUser(userDto);
-        validateUser(user);
-        return UserMapper.toUserDto(userRepository.saveAndFlush(user));
+        rejectKnownEmail(user.getEmail(), null);
+        saveAndFlush(List.of(user));
+        TransactionCallbacks.afterCommit(() -> emailIndex.put(user));
+        return UserMapper.toUserDto(user);
     }
 
+    // Пакетное создание: проверка дубликатов внутри пакета и пакетные INSERT под ограничением уникальности
+    @Transactional
+    public List<UserDto> createUsers(List<UserDto> userDtos) {
+        if (userDtos.size() > MAX_BULK_SIZE) {
+            throw new ValidationException(String.format(ExceptionMessages.BULK_SIZE_ERROR, MAX_BULK_SIZE));
+        }
+
+        Set<String> emails = new HashSet<>();
+        for (UserDto userDto : userDtos) {
+            if (!emails.add(userDto.getEmail())) {
+                throw new DuplicateException(ExceptionMessages.EMAIL_DUPLICATE_ERROR);
+            }
+        }
+        List<String> known = emails.stream()
+                .filter(email -> emailIndex.findOwner(email) != null)
+                .toList();
+        if (!known.isEmpty() && !userRepository.findAllByEmailIn(known).isEmpty()) {
+            throw new DuplicateException(ExceptionMessages.EMAIL_DUPLICATE_ERROR);
+        }
+
+        List<User> users = userDtos.stream()
+                .map(UserMapper::toUser)
+                .toList();
+        saveAndFlush(users);
+        TransactionCallbacks.afterCommit(() -> users.forEach(emailIndex::put));
+        return users.stream()
+                .map(UserMapper::toUserDto)
+                .toList();
+    }
+
+    @Transactional
     public UserDto updateUser(Long id, UserDto userDto) {
-        User user = getUser(id);
+        // Изменяется свежая копия, а не разделяемая запись кэша
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException(String.format(ExceptionMessages.USER_NOT_FOUND_ERROR, id)));
+        if (userDto.getEmail() != null && !userDto.getEmail().equals(user.getEmail())) {
+            rejectKnownEmail(userDto.getEmail(), id);
+            user.setEmail(userDto.getEmail());
+        }
         if (userDto.getName() != null) {
             user.setName(userDto.getName());
         }
-        if (userDto.getEmail() != null) {
-            user.setEmail(userDto.getEmail());
-        }
 
-        validateUser(user);
-        return UserMapper.toUserDto(userRepository.saveAndFlush(user));
+        saveAndFlush(List.of(user));
+        TransactionCallbacks.afterCommit(() -> {
+            userCache.invalidate(id);
+            emailIndex.put(user);
+        });
+        return UserMapper.toUserDto(user);
     }
 
+    @Transactional
     public void deleteUser(Long id) {
         getUser(id);
+        List<Long> ownedItemIds = itemRepository.findIdsByOwnerId(id);
         userRepository.deleteById(id);
+        TransactionCallbacks.afterCommit(() -> {
+            userCache.invalidate(id);
+            // Вещи и бронирования пользователя удаляются каскадом в БД
+            ownedItemIds.forEach(itemCache::invalidate);
+            ownedItemIds.forEach(availabilityIndex::removeItem);
+            ownedItemIds.forEach(availabilityCache::invalidate);
+            availabilityIndex.removeByBooker(id).forEach(availabilityCache::invalidate);
+            itemSearchIndex.removeByOwner(id);
+            itemSuggestIndex.removeByOwner(id);
+            emailIndex.remove(id);
+        });
+    }
+
+    // Индекс лишь подсказывает возможный дубликат, подтверждает его база
+    private void rejectKnownEmail(String email, Long userId) {
+        Long owner = emailIndex.findOwner(email);
+        if (owner != null && !owner.equals(userId) && userRepository.findAllByEmail(email)
+                .filter(u -> !Objects.equals(u.getId(), userId))
+                .isPresent()) {
+            throw new DuplicateException(ExceptionMessages.EMAIL_DUPLICATE_ERROR);
+        }
     }
 
-    private void validateUser(User user) {
-        if (userRepository.findAllByEmail(user.getEmail())
-                .stream()
-                .anyMatch(u ->
-                        !Objects.equals(u.getId(), user.getId()))) {
-            throw new DuplicateException("Этот email уже используется");
+    // Flush внутри метода, чтобы нарушение уникальности email превратилось в DuplicateException здесь, а не при коммите
+    private void saveAndFlush(List<User> users) {
+        try {
+            userRepository.saveAllAndFlush(users);
+        } catch (DataIntegrityViolationException e) {
+            if (isEmailConflict(e)) {
+                throw new DuplicateException(ExceptionMessages.EMAIL_DUPLICATE_ERROR);
+            }
+            throw e;
         }
     }
 
+    private static boolean isEmailConflict(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            String text = cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null
+                    ? violation.getConstraintName()
+                    : cause.getMessage();
+            if (text != null && text.toUpperCase(Locale.ROOT).contains(EMAIL_CONSTRAINT)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public User getUser(Long userId) throws ConditionsNotMetException {
         if (userId == null) {
             throw new ConditionsNotMetException(ExceptionMessages.NOT_FOUND_ITEM);
         }
 
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException(String.format(ExceptionMessages.USER_NOT_FOUND_ERROR, userId)));
+        return userCache.get(userId, () -> userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException(String.format(ExceptionMessages.USER_NOT_FOUND_ERROR, userId))));
+    }
+
+    public boolean existsUser(Long userId) {
+        return userId != null && (userCache.contains(userId) || userRepository.existsById(userId));
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,147 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.controller.BookingController;
+import ru.practicum.shareit.booking.model.BookingDto;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.comment.model.Comment;
+import ru.practicum.shareit.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.controller.ItemController;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.support.EndpointBudget;
+import ru.practicum.shareit.support.StatementBudget;
+import ru.practicum.shareit.user.controller.UserController;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Каждый GET-endpoint укладывается в свой бюджет SQL-запросов и на одной строке,
+ * и на десяти: число запросов не растёт с размером результата.
+ */
+@SpringBootTest(classes = ShareItApp.class)
+@AutoConfigureTestDatabase
+@Import(StatementBudget.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class EndpointStatementBudgetTest {
+    private static final int COMMENTS_PER_ITEM = 2;
+
+    @Autowired
+    private UserController userController;
+
+    @Autowired
+    private ItemController itemController;
+
+    @Autowired
+    private BookingController bookingController;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private StatementBudget statementBudget;
+
+    private int userCount;
+
+    @Test
+    void getEndpointsStayWithinBudgetRegardlessOfResultSize() {
+        for (int size : new int[]{1, 10}) {
+            checkEndpoints(size);
+        }
+    }
+
+    private void checkEndpoints(int size) {
+        UserDto owner = userController.create(getUserDto());
+        UserDto booker = userController.create(getUserDto());
+        String token = "budget" + size;
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> itemIds = new ArrayList<>();
+        List<Long> bookingIds = new ArrayList<>();
+        List<Comment> comments = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            ItemDto item = itemController.create(ItemDto.builder()
+                    .name(token + " item " + i)
+                    .description("Description " + i)
+                    .isAvailable(true)
+                    .build(), owner.getId());
+            itemIds.add(item.getId());
+
+            BookingDto past = bookingController.create(getBookingDto(item.getId(), now.minusDays(2)), booker.getId());
+            BookingDto future = bookingController.create(getBookingDto(item.getId(), now.plusDays(1)), booker.getId());
+            bookingController.updateStatus(past.getId(), owner.getId(), true);
+            bookingController.updateStatus(future.getId(), owner.getId(), true);
+            bookingIds.add(future.getId());
+
+            for (int c = 0; c < COMMENTS_PER_ITEM; c++) {
+                comments.add(Comment.builder()
+                        .text("Отзыв" + c)
+                        .item(itemRepository.getReferenceById(item.getId()))
+                        .author(userRepository.getReferenceById(booker.getId()))
+                        .created(now.minusHours(c + 1))
+                        .build());
+            }
+        }
+        commentRepository.saveAll(comments);
+        Long itemId = itemIds.getFirst();
+
+        assertEquals(size, statementBudget.check(EndpointBudget.ITEMS_OWNED,
+                () -> itemController.findAllOwned(owner.getId())).size());
+        statementBudget.check(EndpointBudget.ITEM_GET_BY_OWNER, () -> itemController.findById(itemId, owner.getId()));
+        statementBudget.check(EndpointBudget.ITEM_GET, () -> itemController.findById(itemId, booker.getId()));
+        assertEquals(size, statementBudget.check(EndpointBudget.ITEM_LOOKUP,
+                () -> itemController.findAllById(itemIds)).found().size());
+        assertEquals(size, statementBudget.check(EndpointBudget.ITEM_SEARCH,
+                () -> itemController.search(token, 0, 20, booker.getId())).size());
+        statementBudget.check(EndpointBudget.ITEM_SUGGEST, () -> itemController.suggest(token, 10));
+        statementBudget.check(EndpointBudget.ITEM_AVAILABILITY,
+                () -> itemController.findAvailability(itemId, now, now.plusDays(30)));
+        statementBudget.check(EndpointBudget.ITEM_COMMENTS, () -> itemController.getItemComments(itemId, 100, null));
+
+        statementBudget.check(EndpointBudget.BOOKING_GET,
+                () -> bookingController.findById(bookingIds.getFirst(), booker.getId()));
+        for (BookingState state : BookingState.values()) {
+            statementBudget.check(EndpointBudget.BOOKINGS_BY_BOOKER,
+                    () -> bookingController.findAllByBookerAndState(state, 100, null, booker.getId()));
+            statementBudget.check(EndpointBudget.BOOKINGS_BY_OWNER,
+                    () -> bookingController.findAllByOwnerAndState(state, 100, null, owner.getId()));
+        }
+
+        statementBudget.check(EndpointBudget.USER_GET, () -> userController.findById(booker.getId()));
+        statementBudget.check(EndpointBudget.USER_LOOKUP,
+                () -> userController.findAllById(List.of(owner.getId(), booker.getId())));
+    }
+
+    private UserDto getUserDto() {
+        userCount++;
+        return UserDto.builder()
+                .name("User" + userCount)
+                .email("user" + userCount + "@mail.ru")
+                .build();
+    }
+
+    private BookingDto getBookingDto(Long itemId, LocalDateTime start) {
+        return BookingDto.builder()
+                .itemId(itemId)
+                .start(start)
+                .end(start.plusDays(1))
+                .build();
+    }
+}
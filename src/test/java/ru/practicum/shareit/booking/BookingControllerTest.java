@@ -1,27 +1,43 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.validation.ValidationException;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.ShareItApp;
 import ru.practicum.shareit.booking.controller.BookingController;
+import ru.practicum.shareit.booking.model.BookingDecisionDto;
+import ru.practicum.shareit.booking.model.BookingDecisionOutcome;
+import ru.practicum.shareit.booking.model.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.model.BookingDto;
+import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatusType;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exceptions.ConditionsNotMetException;
+import ru.practicum.shareit.exceptions.ExceptionMessages;
 import ru.practicum.shareit.item.controller.ItemController;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.support.EndpointBudget;
+import ru.practicum.shareit.support.StatementBudget;
 import ru.practicum.shareit.user.controller.UserController;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest(classes = ShareItApp.class)
 @AutoConfigureTestDatabase
+@Import(StatementBudget.class)
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 @DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
 class BookingControllerTest {
@@ -40,6 +56,12 @@ class BookingControllerTest {
     @Autowired
     private BookingController bookingController;
 
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private StatementBudget statementBudget;
+
     @Test
     void bookingControllerCreatesBooking() {
         UserDto userDto = getUserDto(userCount);
@@ -76,6 +98,220 @@ class BookingControllerTest {
         assertEquals(BookingStatusType.APPROVED, updatedBooking.getStatus());
     }
 
+    @Test
+    void bookingStatusChangesFollowCurrentStatus() {
+        UserDto userDto = userController.create(getUserDto(userCount));
+        UserDto bookerDto = userController.create(getUserDto(userCount));
+        ItemDto itemDto = itemController.create(getItemDto(itemCount), userDto.getId());
+
+        BookingDto createdBooking = bookingController.create(
+                getBookingDto(itemDto.getId(), bookerDto.getId()), bookerDto.getId());
+        bookingController.updateStatus(createdBooking.getId(), userDto.getId(), true);
+
+        // Переход ищется от сохранённого статуса: повторное подтверждение — ошибка, отмена подтверждённой — нет
+        assertThrows(ValidationException.class,
+                () -> bookingController.updateStatus(createdBooking.getId(), userDto.getId(), true));
+        assertEquals(BookingStatusType.CANCELLED,
+                bookingService.cancelBooking(createdBooking.getId(), userDto.getId()).getStatus());
+    }
+
+    @Test
+    void bookingControllerDoesNotReapproveBookingWhoseSlotWasTaken() {
+        UserDto ownerDto = userController.create(getUserDto(userCount));
+        UserDto firstBooker = userController.create(getUserDto(userCount));
+        UserDto secondBooker = userController.create(getUserDto(userCount));
+        ItemDto itemDto = itemController.create(getItemDto(itemCount), ownerDto.getId());
+
+        BookingDto rejected = bookingController.create(
+                getBookingDto(itemDto.getId(), firstBooker.getId()), firstBooker.getId());
+        bookingController.updateStatus(rejected.getId(), ownerDto.getId(), false);
+
+        BookingDto rebooked = bookingController.create(
+                getBookingDto(itemDto.getId(), secondBooker.getId()), secondBooker.getId());
+        bookingController.updateStatus(rebooked.getId(), ownerDto.getId(), true);
+
+        assertThrows(ValidationException.class,
+                () -> bookingController.updateStatus(rejected.getId(), ownerDto.getId(), true));
+        List<BookingDecisionResultDto> results = bookingController.updateStatuses(List.of(
+                BookingDecisionDto.builder().bookingId(rejected.getId()).approved(true).build()
+        ), ownerDto.getId());
+        assertEquals(BookingDecisionOutcome.INVALID_TRANSITION, results.getFirst().getOutcome());
+
+        assertEquals(BookingStatusType.REJECTED,
+                bookingController.findById(rejected.getId(), ownerDto.getId()).getStatus());
+        assertEquals(BookingStatusType.APPROVED,
+                bookingController.findById(rebooked.getId(), ownerDto.getId()).getStatus());
+    }
+
+    @Test
+    void bookingControllerRejectsOverlappingBooking() {
+        UserDto userDto = userController.create(getUserDto(userCount));
+        UserDto bookerDto = userController.create(getUserDto(userCount));
+        ItemDto itemDto = itemController.create(getItemDto(itemCount), userDto.getId());
+
+        BookingDto bookingDto = getBookingDto(itemDto.getId(), bookerDto.getId());
+        bookingController.create(bookingDto, bookerDto.getId());
+
+        BookingDto overlapping = getBookingDto(itemDto.getId(), bookerDto.getId());
+        overlapping.setStart(bookingDto.getStart().plusHours(12));
+        overlapping.setEnd(bookingDto.getEnd().plusHours(12));
+        Long bookerId = bookerDto.getId();
+        assertThrows(ConditionsNotMetException.class,
+                () -> bookingController.create(overlapping, bookerId),
+                "Контроллер не выбросил исключение при пересечении бронирований");
+    }
+
+    @Test
+    void bookingControllerReleasesSlotOfRejectedBooking() {
+        UserDto userDto = userController.create(getUserDto(userCount));
+        UserDto bookerDto = userController.create(getUserDto(userCount));
+        ItemDto itemDto = itemController.create(getItemDto(itemCount), userDto.getId());
+
+        BookingDto bookingDto = getBookingDto(itemDto.getId(), bookerDto.getId());
+        BookingDto createdBooking = bookingController.create(bookingDto, bookerDto.getId());
+        bookingController.updateStatus(createdBooking.getId(), userDto.getId(), false);
+
+        BookingDto secondBooking = bookingController.create(
+                getBookingDto(itemDto.getId(), bookerDto.getId()), bookerDto.getId());
+        assertEquals(BookingStatusType.WAITING, secondBooking.getStatus());
+    }
+
+    @Test
+    void bookingControllerReleasesSlotsOfDeletedBooker() {
+        UserDto userDto = userController.create(getUserDto(userCount));
+        UserDto bookerDto = userController.create(getUserDto(userCount));
+        UserDto nextBookerDto = userController.create(getUserDto(userCount));
+        ItemDto itemDto = itemController.create(getItemDto(itemCount), userDto.getId());
+
+        BookingDto bookingDto = getBookingDto(itemDto.getId(), bookerDto.getId());
+        BookingDto createdBooking = bookingController.create(bookingDto, bookerDto.getId());
+        bookingController.updateStatus(createdBooking.getId(), userDto.getId(), true);
+        LocalDateTime from = LocalDateTime.now();
+        LocalDateTime to = from.plusDays(30);
+        assertEquals(2, itemController.findAvailability(itemDto.getId(), from, to).size());
+
+        // Бронирования удалённого арендатора удаляются каскадом, слот снова свободен
+        userController.delete(bookerDto.getId());
+        assertEquals(List.of(new AvailabilitySlotDto(from, to)), itemController.findAvailability(itemDto.getId(), from, to));
+
+        BookingDto nextBooking = getBookingDto(itemDto.getId(), nextBookerDto.getId());
+        nextBooking.setStart(bookingDto.getStart());
+        nextBooking.setEnd(bookingDto.getEnd());
+        assertEquals(BookingStatusType.WAITING, bookingController.create(nextBooking, nextBookerDto.getId()).getStatus());
+    }
+
+    @Test
+    void bookingControllerPaginatesOwnerBookingsWithCursor() {
+        UserDto userDto = userController.create(getUserDto(userCount));
+        UserDto bookerDto = userController.create(getUserDto(userCount));
+        ItemDto itemDto = itemController.create(getItemDto(itemCount), userDto.getId());
+
+        for (int i = 0; i < 3; i++) {
+            BookingDto bookingDto = getBookingDto(itemDto.getId(), bookerDto.getId());
+            bookingDto.setStart(bookingDto.getStart().plusDays(i * 2L));
+            bookingDto.setEnd(bookingDto.getEnd().plusDays(i * 2L));
+            bookingController.create(bookingDto, bookerDto.getId());
+        }
+
+        ResponseEntity<List<BookingDto>> firstPage =
+                bookingController.findAllByOwnerAndState(BookingState.ALL, 2, null, userDto.getId());
+        String cursor = firstPage.getHeaders().getFirst(CursorPage.NEXT_CURSOR_HEADER);
+        assertEquals(2, firstPage.getBody().size());
+        assertNotNull(cursor);
+
+        ResponseEntity<List<BookingDto>> secondPage =
+                bookingController.findAllByOwnerAndState(BookingState.ALL, 2, cursor, userDto.getId());
+        assertEquals(1, secondPage.getBody().size());
+        assertTrue(secondPage.getBody().getFirst().getStart().isAfter(firstPage.getBody().getLast().getStart()));
+        assertNull(secondPage.getHeaders().getFirst(CursorPage.NEXT_CURSOR_HEADER));
+
+        // Курсор привязан к списку и состоянию, для которых выдан
+        Long ownerId = userDto.getId();
+        Long bookerId = bookerDto.getId();
+        assertThrows(ValidationException.class,
+                () -> bookingController.findAllByOwnerAndState(BookingState.FUTURE, 2, cursor, ownerId));
+        assertThrows(ValidationException.class,
+                () -> bookingController.findAllByBookerAndState(BookingState.ALL, 2, cursor, bookerId));
+    }
+
+    @Test
+    void bookingControllerAppliesBatchDecisions() {
+        UserDto ownerDto = userController.create(getUserDto(userCount));
+        UserDto otherOwnerDto = userController.create(getUserDto(userCount));
+        UserDto bookerDto = userController.create(getUserDto(userCount));
+        ItemDto itemDto = itemController.create(getItemDto(itemCount), ownerDto.getId());
+        ItemDto otherItemDto = itemController.create(getItemDto(itemCount), otherOwnerDto.getId());
+
+        BookingDto first = bookingController.create(getBookingDto(itemDto.getId(), bookerDto.getId()), bookerDto.getId());
+        BookingDto second = getBookingDto(itemDto.getId(), bookerDto.getId());
+        second.setStart(second.getStart().plusDays(2));
+        second.setEnd(second.getEnd().plusDays(2));
+        second = bookingController.create(second, bookerDto.getId());
+        BookingDto foreign = bookingController.create(
+                getBookingDto(otherItemDto.getId(), bookerDto.getId()), bookerDto.getId());
+
+        List<BookingDecisionResultDto> results = bookingController.updateStatuses(List.of(
+                BookingDecisionDto.builder().bookingId(first.getId()).approved(true).build(),
+                BookingDecisionDto.builder().bookingId(second.getId()).approved(false).build(),
+                BookingDecisionDto.builder().bookingId(foreign.getId()).approved(true).build(),
+                BookingDecisionDto.builder().bookingId(9999L).approved(true).build()
+        ), ownerDto.getId());
+
+        assertEquals(BookingDecisionOutcome.UPDATED, results.get(0).getOutcome());
+        assertEquals(BookingStatusType.APPROVED, results.get(0).getBooking().getStatus());
+        assertEquals(BookingDecisionOutcome.UPDATED, results.get(1).getOutcome());
+        assertEquals(BookingStatusType.REJECTED, results.get(1).getBooking().getStatus());
+        assertEquals(BookingDecisionOutcome.FORBIDDEN, results.get(2).getOutcome());
+        assertEquals(BookingDecisionOutcome.NOT_FOUND, results.get(3).getOutcome());
+        assertEquals(BookingStatusType.REJECTED,
+                bookingController.findById(second.getId(), ownerDto.getId()).getStatus());
+        assertEquals(BookingStatusType.WAITING,
+                bookingController.findById(foreign.getId(), otherOwnerDto.getId()).getStatus());
+    }
+
+    @Test
+    void bookingControllerRejectsBatchWithRepeatedBooking() {
+        UserDto ownerDto = userController.create(getUserDto(userCount));
+        UserDto bookerDto = userController.create(getUserDto(userCount));
+        ItemDto itemDto = itemController.create(getItemDto(itemCount), ownerDto.getId());
+        BookingDto bookingDto = bookingController.create(
+                getBookingDto(itemDto.getId(), bookerDto.getId()), bookerDto.getId());
+
+        List<BookingDecisionDto> decisions = List.of(
+                BookingDecisionDto.builder().bookingId(bookingDto.getId()).approved(false).build(),
+                BookingDecisionDto.builder().bookingId(bookingDto.getId()).approved(true).build());
+        Long ownerId = ownerDto.getId();
+
+        ValidationException thrown = assertThrows(ValidationException.class,
+                () -> bookingController.updateStatuses(decisions, ownerId));
+        assertEquals(String.format(ExceptionMessages.BOOKING_BATCH_DUPLICATE_ERROR, bookingDto.getId()),
+                thrown.getMessage());
+        assertEquals(BookingStatusType.WAITING,
+                bookingController.findById(bookingDto.getId(), ownerId).getStatus());
+    }
+
+    @Test
+    void bookingListingsUseConstantNumberOfStatements() {
+        UserDto ownerDto = userController.create(getUserDto(userCount));
+        UserDto bookerDto = userController.create(getUserDto(userCount));
+        for (int i = 0; i < 5; i++) {
+            ItemDto itemDto = itemController.create(getItemDto(itemCount), ownerDto.getId());
+            bookingController.create(getBookingDto(itemDto.getId(), bookerDto.getId()), bookerDto.getId());
+        }
+
+        for (BookingState state : BookingState.values()) {
+            statementBudget.check(EndpointBudget.BOOKINGS_BY_OWNER,
+                    () -> bookingController.findAllByOwnerAndState(state, 100, null, ownerDto.getId()));
+            statementBudget.check(EndpointBudget.BOOKINGS_BY_BOOKER,
+                    () -> bookingController.findAllByBookerAndState(state, 100, null, bookerDto.getId()));
+        }
+
+        List<BookingDto> bookings = statementBudget.check(EndpointBudget.BOOKINGS_BY_OWNER,
+                () -> bookingController.findAllByOwnerAndState(BookingState.ALL, 100, null, ownerDto.getId()).getBody());
+        assertEquals(5, bookings.size());
+        assertEquals(bookerDto.getId(), bookings.getFirst().getBooker().getId());
+    }
+
     private UserDto getUserDto(int id) {
         userCount++;
         return UserDto.builder()
@@ -0,0 +1,122 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingDto;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exceptions.ConditionsNotMetException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = ShareItApp.class)
+@AutoConfigureTestDatabase
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class BookingServiceConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final int ATTEMPTS_PER_THREAD = 50;
+    private static final int ITEMS = 4;
+    private static final double MIN_THROUGHPUT = 20.0;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    void concurrentBookingsNeverOverlap() throws InterruptedException {
+        Long ownerId = userService.createUser(UserDto.builder().name("Owner").email("owner@mail.ru").build()).getId();
+        Long bookerId = userService.createUser(UserDto.builder().name("Booker").email("booker@mail.ru").build()).getId();
+        List<Long> itemIds = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            itemIds.add(itemService.createItem(ItemDto.builder()
+                    .name("Item" + i)
+                    .description("Description" + i)
+                    .isAvailable(true)
+                    .build(), ownerId).getId());
+        }
+
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+        AtomicInteger created = new AtomicInteger();
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    LocalDateTime bookingStart = base.plusHours(random.nextInt(24 * 10));
+                    BookingDto bookingDto = BookingDto.builder()
+                            .itemId(itemIds.get(random.nextInt(ITEMS)))
+                            .start(bookingStart)
+                            .end(bookingStart.plusHours(1 + random.nextInt(24)))
+                            .build();
+                    try {
+                        bookingService.createBooking(bookingDto, bookerId);
+                        created.incrementAndGet();
+                    } catch (ConditionsNotMetException e) {
+                        // слот уже занят — ожидаемый исход
+                    } catch (Throwable e) {
+                        failures.add(e);
+                    }
+                }
+                return null;
+            });
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES), "Потоки не завершились вовремя");
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+
+        assertTrue(failures.isEmpty(), "Неожиданные ошибки: " + failures);
+        double throughput = THREADS * ATTEMPTS_PER_THREAD / seconds;
+        assertTrue(throughput >= MIN_THROUGHPUT, "Пропускная способность " + throughput + " оп/с ниже порога");
+
+        Map<Long, List<Booking>> bookingsByItem = bookingRepository.findAll().stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+        assertEquals(created.get(), bookingsByItem.values().stream().mapToInt(List::size).sum());
+        assertFalse(created.get() == 0, "Ни одно бронирование не создано");
+        for (List<Booking> bookings : bookingsByItem.values()) {
+            bookings.sort(Comparator.comparing(Booking::getStart));
+            for (int i = 1; i < bookings.size(); i++) {
+                assertFalse(bookings.get(i).getStart().isBefore(bookings.get(i - 1).getEnd()),
+                        "Пересекающиеся бронирования " + bookings.get(i - 1).getId() + " и " + bookings.get(i).getId());
+            }
+        }
+    }
+}
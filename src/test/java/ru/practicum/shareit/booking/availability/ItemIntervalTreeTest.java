@@ -0,0 +1,32 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemIntervalTreeTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    @Test
+    void removeEndedKeepsCurrentAndFutureIntervals() {
+        ItemIntervalTree tree = new ItemIntervalTree();
+        for (int i = 0; i < 10; i++) {
+            tree.add(i, NOW.minusDays(20 - i), NOW.minusDays(19 - i));
+        }
+        tree.add(10, NOW.minusHours(1), NOW.plusHours(1));
+        tree.add(11, NOW.plusDays(1), NOW.plusDays(2));
+
+        List<Long> removed = tree.removeEnded(NOW);
+
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L), removed);
+        assertEquals(2, tree.size());
+        assertFalse(tree.overlaps(NOW.minusDays(20), NOW.minusDays(2)));
+        assertTrue(tree.overlaps(NOW, NOW.plusMinutes(1)));
+        assertTrue(tree.overlaps(NOW.plusDays(1), NOW.plusDays(3)));
+    }
+}
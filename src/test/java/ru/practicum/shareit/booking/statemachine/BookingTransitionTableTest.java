@@ -0,0 +1,46 @@
+package ru.practicum.shareit.booking.statemachine;
+
+import jakarta.validation.ValidationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.statemachine.StateMachine;
+import org.springframework.statemachine.config.StateMachineFactory;
+import ru.practicum.shareit.booking.model.BookingEvent;
+import ru.practicum.shareit.booking.model.BookingStatusType;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BookingTransitionTableTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void transitionTableMatchesStateMachineConfig() {
+        try (AnnotationConfigApplicationContext context =
+                     new AnnotationConfigApplicationContext(BookingStateMachineConfig.class)) {
+            StateMachineFactory<BookingStatusType, BookingEvent> factory = context.getBean(StateMachineFactory.class);
+            BookingTransitionTable transitionTable = new BookingTransitionTable(factory);
+
+            for (BookingEvent event : BookingEvent.values()) {
+                StateMachine<BookingStatusType, BookingEvent> sm = factory.getStateMachine();
+                sm.start();
+                sm.sendEvent(event);
+                assertEquals(sm.getState().getId(), transitionTable.next(BookingStatusType.WAITING, event));
+                sm.stop();
+            }
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void transitionTableRejectsUndefinedTransition() {
+        try (AnnotationConfigApplicationContext context =
+                     new AnnotationConfigApplicationContext(BookingStateMachineConfig.class)) {
+            BookingTransitionTable transitionTable =
+                    new BookingTransitionTable(context.getBean(StateMachineFactory.class));
+
+            assertThrows(ValidationException.class,
+                    () -> transitionTable.next(BookingStatusType.APPROVED, BookingEvent.REJECT));
+        }
+    }
+}
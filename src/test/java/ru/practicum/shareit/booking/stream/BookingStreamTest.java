@@ -0,0 +1,177 @@
+package ru.practicum.shareit.booking.stream;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.controller.BookingController;
+import ru.practicum.shareit.booking.model.BookingDto;
+import ru.practicum.shareit.booking.model.BookingStatusType;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.item.controller.ItemController;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.controller.UserController;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+@SpringBootTest(classes = ShareItApp.class, properties = "shareit.bookings.stream.buffer-size=2")
+@AutoConfigureTestDatabase
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class BookingStreamTest {
+    @Autowired
+    private UserController userController;
+
+    @Autowired
+    private ItemController itemController;
+
+    @Autowired
+    private BookingController bookingController;
+
+    @Autowired
+    private BookingStream bookingStream;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void bookerAndOwnerReceiveBookingChanges() throws InterruptedException {
+        UserDto owner = userController.create(UserDto.builder().name("Owner").email("owner@mail.ru").build());
+        UserDto booker = userController.create(UserDto.builder().name("Booker").email("booker@mail.ru").build());
+        UserDto stranger = userController.create(UserDto.builder().name("Stranger").email("stranger@mail.ru").build());
+        ItemDto item = itemController.create(ItemDto.builder()
+                .name("Item")
+                .description("Description")
+                .isAvailable(true)
+                .build(), owner.getId());
+
+        RecordingEmitter ownerEmitter = new RecordingEmitter();
+        RecordingEmitter bookerEmitter = new RecordingEmitter();
+        RecordingEmitter strangerEmitter = new RecordingEmitter();
+        bookingStream.subscribe(owner.getId(), ownerEmitter);
+        bookingStream.subscribe(booker.getId(), bookerEmitter);
+        bookingStream.subscribe(stranger.getId(), strangerEmitter);
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingDto booking = bookingController.create(BookingDto.builder()
+                .itemId(item.getId())
+                .start(start)
+                .end(start.plusDays(1))
+                .build(), booker.getId());
+        bookingController.updateStatus(booking.getId(), owner.getId(), true);
+
+        awaitUntil(() -> ownerEmitter.bookings().size() == 2 && bookerEmitter.bookings().size() == 2);
+        assertEquals(List.of(BookingStatusType.WAITING, BookingStatusType.APPROVED),
+                ownerEmitter.bookings().stream().map(BookingDto::getStatus).toList());
+        assertEquals(booking.getId(), bookerEmitter.bookings().getFirst().getId());
+        assertTrue(strangerEmitter.sent.isEmpty());
+    }
+
+    @Test
+    void heartbeatIsSentToEverySubscriber() throws InterruptedException {
+        UserDto user = userController.create(UserDto.builder().name("User").email("user@mail.ru").build());
+        RecordingEmitter emitter = new RecordingEmitter();
+        bookingStream.subscribe(user.getId(), emitter);
+
+        bookingStream.sendHeartbeats();
+
+        awaitUntil(() -> !emitter.sent.isEmpty());
+        assertTrue(emitter.sent.getFirst().stream().anyMatch(data -> data.toString().contains(":heartbeat")));
+    }
+
+    @Test
+    void slowSubscriberIsDisconnectedWhenBufferOverflows() throws InterruptedException {
+        UserDto user = userController.create(UserDto.builder().name("User").email("user@mail.ru").build());
+        RecordingEmitter emitter = new RecordingEmitter();
+        emitter.blocked = new CountDownLatch(1);
+        bookingStream.subscribe(user.getId(), emitter);
+
+        try {
+            // Первое событие застревает в send, следующие два заполняют буфер, очередное его переполняет.
+            // Публикация не ждёт монитор эмиттера, который держит застрявший send
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+                for (int i = 0; i < 10 && bookingStream.getSubscriberCount() > 0; i++) {
+                    bookingStream.sendHeartbeats();
+                    awaitUntil(() -> emitter.sending.get() > 0);
+                }
+            });
+        } finally {
+            emitter.blocked.countDown();
+        }
+
+        awaitUntil(() -> emitter.completed);
+        assertEquals(0, bookingStream.getSubscriberCount());
+        assertEquals(1, meterRegistry.get(BookingStream.DROPPED_METRIC).counter().count());
+    }
+
+    @Test
+    void unknownUserCannotSubscribe() {
+        assertThrows(NotFoundException.class, () -> bookingController.stream(100L));
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Событие не доставлено вовремя");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<List<Object>> sent = new CopyOnWriteArrayList<>();
+        private final AtomicInteger sending = new AtomicInteger();
+        private volatile CountDownLatch blocked;
+        private volatile boolean completed;
+
+        // Как у настоящего клиента, медленная запись держит монитор эмиттера, который берут send и complete
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            synchronized (this) {
+                sending.incrementAndGet();
+                if (blocked != null) {
+                    try {
+                        blocked.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                sent.add(builder.build().stream().map(DataWithMediaType::getData).toList());
+                super.send(builder);
+            }
+        }
+
+        @Override
+        public void complete() {
+            super.complete();
+            completed = true;
+        }
+
+        private List<BookingDto> bookings() {
+            return sent.stream()
+                    .flatMap(List::stream)
+                    .filter(BookingDto.class::isInstance)
+                    .map(BookingDto.class::cast)
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.user.controller.UserController;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = ShareItApp.class)
+@AutoConfigureTestDatabase
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class IdSequenceAlignerTest {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private IdSequenceAligner idSequenceAligner;
+
+    @Autowired
+    private UserController userController;
+
+    @Test
+    void sequencesSkipIdsOfExistingRows() {
+        // Строки, созданные до перехода на последовательности
+        jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (500, 'Legacy', 'legacy@mail.ru')");
+        idSequenceAligner.align();
+
+        for (int i = 0; i < 3; i++) {
+            UserDto user = userController.create(UserDto.builder().name("User" + i).email("user" + i + "@mail.ru").build());
+            assertTrue(user.getId() > 500, "Новый id пересекается с существующими: " + user.getId());
+        }
+    }
+}
@@ -1,26 +1,55 @@
 package ru.practicum.shareit.item;
 
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ValidationException;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.controller.BookingController;
+import ru.practicum.shareit.cache.LruCache;
+import ru.practicum.shareit.booking.model.BookingDto;
+import ru.practicum.shareit.comment.model.Comment;
+import ru.practicum.shareit.comment.model.CommentDto;
+import ru.practicum.shareit.comment.repository.CommentRepository;
 import ru.practicum.shareit.exceptions.ConditionsNotMetException;
+import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.item.controller.ItemController;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.lookup.LookupResult;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.support.EndpointBudget;
+import ru.practicum.shareit.support.StatementBudget;
 import ru.practicum.shareit.user.controller.UserController;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import static org.hibernate.validator.internal.util.Contracts.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest(classes = ShareItApp.class)
 @AutoConfigureTestDatabase
+@Import(StatementBudget.class)
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 @DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
 class ItemControllerTest {
@@ -33,6 +62,30 @@ class ItemControllerTest {
     @Autowired
     private ItemController itemController;
 
+    @Autowired
+    private BookingController bookingController;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private LruCache<Long, Item> itemCache;
+
+    @Autowired
+    private StatementBudget statementBudget;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
     @Test
     void itemControllerCreatesCorrectItem() {
         UserDto userDto = getUserDto(userCount);
@@ -45,6 +98,17 @@ class ItemControllerTest {
     }
 
 
+    @Test
+    void itemControllerCreatesItemsInBatch() {
+        UserDto userDto = userController.create(getUserDto(userCount));
+
+        List<ItemDto> created = itemController.createAll(
+                List.of(getItemDto(itemCount), getItemDto(itemCount), getItemDto(itemCount)), userDto.getId());
+
+        assertEquals(3, created.size());
+        assertEquals(3, itemController.findAllOwned(userDto.getId()).size());
+    }
+
     @Test
     void itemControllerFindsItemById() {
         UserDto userDto = getUserDto(userCount);
@@ -57,6 +121,19 @@ class ItemControllerTest {
     }
 
 
+    @Test
+    void itemControllerLooksUpItemsInRequestOrder() {
+        UserDto userDto = userController.create(getUserDto(userCount));
+        ItemDto first = itemController.create(getItemDto(itemCount), userDto.getId());
+        ItemDto second = itemController.create(getItemDto(itemCount), userDto.getId());
+
+        LookupResult<ItemDto> result = itemController.lookup(List.of(9999L, second.getId(), first.getId()));
+
+        assertEquals(List.of(second.getId(), first.getId()), result.found().stream().map(ItemDto::getId).toList());
+        assertEquals(List.of(9999L), result.missingIds());
+        assertThrows(ValidationException.class, () -> itemController.lookup(Collections.nCopies(1001, 1L)));
+    }
+
     @Test
     void itemControllerFindsAllItemsForUser() {
         UserDto userDto = getUserDto(userCount);
@@ -127,15 +204,269 @@ class ItemControllerTest {
         ItemDto itemDto4 = getItemDto(itemCount);
         itemController.create(itemDto4, userDto.getId());
 
-        assertEquals(2, itemController.search("SearchItem", userDto.getId()).size(), "Неверное количество найденных вещей");
+        assertEquals(2, itemController.search("SearchItem", 0, 20, userDto.getId()).size(), "Неверное количество найденных вещей");
+
+    }
+
+    @Test
+    void itemControllerSearchReflectsUpdatedItems() {
+        UserDto userDto = userController.create(getUserDto(userCount));
+        ItemDto itemDto = getItemDto(itemCount);
+        itemDto.setName("Дрель");
+        itemDto = itemController.create(itemDto, userDto.getId());
+
+        itemController.update(itemDto.getId(), ItemDto.builder().name("Перфоратор").build(), userDto.getId());
+
+        assertEquals(0, itemController.search("дрель", 0, 20, userDto.getId()).size(), "Найдено старое название");
+        assertEquals(1, itemController.search("ПЕРФО", 0, 20, userDto.getId()).size(), "Не найдено новое название");
+    }
+
+    @Test
+    void itemControllerRanksSearchResultsAndPaginates() {
+        UserDto userDto = userController.create(getUserDto(userCount));
+        ItemDto inDescription = getItemDto(itemCount);
+        inDescription.setDescription("Ручная дрель");
+        inDescription = itemController.create(inDescription, userDto.getId());
+        ItemDto inName = getItemDto(itemCount);
+        inName.setName("Дрель");
+        inName = itemController.create(inName, userDto.getId());
+        ItemDto twiceInName = getItemDto(itemCount);
+        twiceInName.setName("Дрель и дрель-шуруповёрт");
+        twiceInName = itemController.create(twiceInName, userDto.getId());
+
+        List<ItemDto> firstPage = itemController.search("дрель", 0, 2, userDto.getId());
+        List<ItemDto> secondPage = itemController.search("дрель", 2, 2, userDto.getId());
+
+        assertEquals(List.of(twiceInName.getId(), inName.getId()), firstPage.stream().map(ItemDto::getId).toList());
+        assertEquals(List.of(inDescription.getId()), secondPage.stream().map(ItemDto::getId).toList());
+        assertThrows(ValidationException.class, () -> itemController.search("дрель", 0, 0, userDto.getId()));
+    }
+
+    @Test
+    void itemControllerCachesSearchAndEvictsOnlyAffectedQueries() {
+        UserDto userDto = userController.create(getUserDto(userCount));
+        ItemDto drill = getItemDto(itemCount);
+        drill.setName("Дрель");
+        drill = itemController.create(drill, userDto.getId());
+        ItemDto saw = getItemDto(itemCount);
+        saw.setName("Пила");
+        saw = itemController.create(saw, userDto.getId());
+
+        itemController.search("дрель", 0, 20, userDto.getId());
+        itemController.search("пила", 0, 20, userDto.getId());
+        itemController.search("дрель", 0, 20, userDto.getId());
+        assertEquals(1.0, searchCacheGets("hit"), "Повторный запрос не попал в кэш");
+
+        itemController.update(saw.getId(), ItemDto.builder().isAvailable(false).build(), userDto.getId());
+        assertEquals(1, itemController.search("дрель", 0, 20, userDto.getId()).size());
+        assertEquals(0, itemController.search("пила", 0, 20, userDto.getId()).size(), "Кэш вернул устаревший результат");
+        assertEquals(2.0, searchCacheGets("hit"), "Запрос, не затронутый изменением, был сброшен");
+
+        itemController.update(drill.getId(), ItemDto.builder().name("Шуруповёрт").build(), userDto.getId());
+        assertEquals(0, itemController.search("дрель", 0, 20, userDto.getId()).size(), "Кэш вернул устаревший результат");
+    }
+
+    @Test
+    void itemControllerKeepsOtherOwnersItemsCachedAfterUserDeletion() {
+        UserDto deletedOwner = userController.create(getUserDto(userCount));
+        UserDto otherOwner = userController.create(getUserDto(userCount));
+        ItemDto deletedItem = itemController.create(getItemDto(itemCount), deletedOwner.getId());
+        ItemDto otherItem = itemController.create(getItemDto(itemCount), otherOwner.getId());
+        itemService.getItem(deletedItem.getId());
+        itemService.getItem(otherItem.getId());
+
+        userController.delete(deletedOwner.getId());
+
+        assertFalse(itemCache.contains(deletedItem.getId()));
+        assertTrue(itemCache.contains(otherItem.getId()), "Удаление пользователя сбросило чужие вещи из кэша");
+    }
 
+    @Test
+    void itemControllerSuggestsPopularWordsByPrefix() {
+        UserDto userDto = userController.create(getUserDto(userCount));
+        for (String name : List.of("Дрель ударная", "Дрель аккумуляторная", "Древесный уголь", "Дрова")) {
+            ItemDto itemDto = getItemDto(itemCount);
+            itemDto.setName(name);
+            itemController.create(itemDto, userDto.getId());
+        }
+        ItemDto hidden = getItemDto(itemCount);
+        hidden.setName("Дренаж");
+        hidden.setIsAvailable(false);
+        hidden = itemController.create(hidden, userDto.getId());
+
+        assertEquals(List.of("дрель", "древесный", "дрова"), itemController.suggest("Др", 3));
+        assertEquals(List.of("дрель"), itemController.suggest("дрел", 10));
+        assertEquals(List.of(), itemController.suggest("дрен", 10), "Подсказка из недоступной вещи");
+
+        itemController.update(hidden.getId(), ItemDto.builder().isAvailable(true).build(), userDto.getId());
+        assertEquals(List.of("дренаж"), itemController.suggest("дрен", 10));
+        assertThrows(ValidationException.class, () -> itemController.suggest("др", 0));
     }
 
     @Test
     void itemControllerReturnsEmptyListForEmptyQuery() {
         UserDto userDto = getUserDto(userCount);
         userDto = userController.create(userDto);
-        assertEquals(0, itemController.search("", userDto.getId()).size(), "Неверное количество найденных вещей");
+        assertEquals(0, itemController.search("", 0, 20, userDto.getId()).size(), "Неверное количество найденных вещей");
+    }
+
+    @Test
+    void itemControllerReturnsFreeSlotsAroundBookings() {
+        UserDto ownerDto = userController.create(getUserDto(userCount));
+        UserDto bookerDto = userController.create(getUserDto(userCount));
+        ItemDto itemDto = itemController.create(getItemDto(itemCount), ownerDto.getId());
+
+        LocalDateTime from = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime to = from.plusDays(10);
+        BookingDto first = bookingController.create(BookingDto.builder()
+                .itemId(itemDto.getId())
+                .start(from.plusDays(2))
+                .end(from.plusDays(3))
+                .build(), bookerDto.getId());
+        bookingController.create(BookingDto.builder()
+                .itemId(itemDto.getId())
+                .start(from.plusDays(5))
+                .end(from.plusDays(6))
+                .build(), bookerDto.getId());
+
+        assertEquals(List.of(
+                new AvailabilitySlotDto(from, from.plusDays(2)),
+                new AvailabilitySlotDto(from.plusDays(3), from.plusDays(5)),
+                new AvailabilitySlotDto(from.plusDays(6), to)
+        ), itemController.findAvailability(itemDto.getId(), from, to));
+
+        bookingController.updateStatus(first.getId(), ownerDto.getId(), false);
+        assertEquals(List.of(
+                new AvailabilitySlotDto(from, from.plusDays(5)),
+                new AvailabilitySlotDto(from.plusDays(6), to)
+        ), itemController.findAvailability(itemDto.getId(), from, to));
+    }
+
+    @Test
+    void itemControllerFillsLastAndNextBookingsForOwner() {
+        UserDto ownerDto = userController.create(getUserDto(userCount));
+        UserDto bookerDto = userController.create(getUserDto(userCount));
+        ItemDto bookedItem = itemController.create(getItemDto(itemCount), ownerDto.getId());
+        ItemDto freeItem = itemController.create(getItemDto(itemCount), ownerDto.getId());
+
+        LocalDateTime now = LocalDateTime.now();
+        BookingDto last = bookingController.create(BookingDto.builder()
+                .itemId(bookedItem.getId())
+                .start(now.minusDays(2))
+                .end(now.minusDays(1))
+                .build(), bookerDto.getId());
+        BookingDto next = bookingController.create(BookingDto.builder()
+                .itemId(bookedItem.getId())
+                .start(now.plusDays(1))
+                .end(now.plusDays(2))
+                .build(), bookerDto.getId());
+        // Более раннее и более позднее бронирования не должны попасть в lastBooking/nextBooking
+        BookingDto earlier = bookingController.create(BookingDto.builder()
+                .itemId(bookedItem.getId())
+                .start(now.minusDays(4))
+                .end(now.minusDays(3))
+                .build(), bookerDto.getId());
+        BookingDto later = bookingController.create(BookingDto.builder()
+                .itemId(bookedItem.getId())
+                .start(now.plusDays(3))
+                .end(now.plusDays(4))
+                .build(), bookerDto.getId());
+        for (BookingDto booking : List.of(last, next, earlier, later)) {
+            bookingController.updateStatus(booking.getId(), ownerDto.getId(), true);
+        }
+
+        List<ItemDto> items = statementBudget.check(EndpointBudget.ITEMS_OWNED,
+                () -> itemController.findAllOwned(ownerDto.getId()));
+
+        ItemDto booked = items.stream().filter(item -> item.getId().equals(bookedItem.getId())).findFirst().orElseThrow();
+        ItemDto free = items.stream().filter(item -> item.getId().equals(freeItem.getId())).findFirst().orElseThrow();
+        assertEquals(last.getId(), booked.getLastBooking().getId());
+        assertEquals(next.getId(), booked.getNextBooking().getId());
+        assertNull(free.getLastBooking());
+        assertNull(free.getNextBooking());
+
+        assertEquals(next.getId(), itemController.findById(bookedItem.getId(), ownerDto.getId()).getNextBooking().getId());
+        assertNull(itemController.findById(bookedItem.getId(), bookerDto.getId()).getNextBooking());
+    }
+
+    @Test
+    void itemControllerLoadsItemWithLatestCommentsInOneStatement() {
+        UserDto ownerDto = userController.create(getUserDto(userCount));
+        UserDto authorDto = userController.create(getUserDto(userCount));
+        ItemDto itemDto = itemController.create(getItemDto(itemCount), ownerDto.getId());
+
+        LocalDateTime created = LocalDateTime.now().minusDays(1);
+        List<Comment> comments = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            comments.add(Comment.builder()
+                    .text("Отзыв" + i)
+                    .item(itemRepository.getReferenceById(itemDto.getId()))
+                    .author(userRepository.getReferenceById(authorDto.getId()))
+                    .created(created.plusMinutes(i))
+                    .build());
+        }
+        commentRepository.saveAll(comments);
+
+        ItemDto found = statementBudget.check(EndpointBudget.ITEM_GET,
+                () -> itemController.findById(itemDto.getId(), authorDto.getId()));
+
+        assertEquals(50, found.getComments().size());
+        assertEquals("Отзыв59", found.getComments().getFirst().getText());
+
+        // В списке вещей владельца отзывы ограничены тем же числом
+        ItemDto owned = itemController.findAllOwned(ownerDto.getId()).getFirst();
+        assertEquals(50, owned.getComments().size());
+        assertEquals("Отзыв59", owned.getComments().getFirst().getText());
+        assertEquals(authorDto.getName(), found.getComments().getFirst().getAuthorName());
+        assertThrows(NotFoundException.class, () -> itemController.findById(-1L, authorDto.getId()));
+    }
+
+    @Test
+    void itemControllerPagesCommentFeedNewestFirst() {
+        UserDto ownerDto = userController.create(getUserDto(userCount));
+        UserDto authorDto = userController.create(getUserDto(userCount));
+        ItemDto itemDto = itemController.create(getItemDto(itemCount), ownerDto.getId());
+
+        // Одинаковое время у части отзывов проверяет порядок по id внутри одной метки
+        LocalDateTime created = LocalDateTime.now().minusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        List<Comment> comments = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            comments.add(Comment.builder()
+                    .text("Отзыв" + i)
+                    .item(itemRepository.getReferenceById(itemDto.getId()))
+                    .author(userRepository.getReferenceById(authorDto.getId()))
+                    .created(created.plusMinutes(i / 2))
+                    .build());
+        }
+        commentRepository.saveAll(comments);
+
+        List<String> texts = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            ResponseEntity<List<CommentDto>> response = itemController.getItemComments(itemDto.getId(), 2, cursor);
+            assertEquals("5", response.getHeaders().getFirst(ItemController.TOTAL_COUNT_HEADER));
+            response.getBody().forEach(comment -> texts.add(comment.getText()));
+            cursor = response.getHeaders().getFirst(CursorPage.NEXT_CURSOR_HEADER);
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(List.of("Отзыв4", "Отзыв3", "Отзыв2", "Отзыв1", "Отзыв0"), texts);
+    }
+
+    @Test
+    void itemControllerUsesOneConnectionPerRequest() {
+        UserDto ownerDto = userController.create(getUserDto(userCount));
+        ItemDto itemDto = itemController.create(getItemDto(itemCount), ownerDto.getId());
+        itemController.create(getItemDto(itemCount), ownerDto.getId());
+
+        statementBudget.checkSingleConnection(EndpointBudget.ITEMS_OWNED,
+                () -> itemController.findAllOwned(ownerDto.getId()));
+        statementBudget.checkSingleConnection(EndpointBudget.ITEM_GET_BY_OWNER,
+                () -> itemController.findById(itemDto.getId(), ownerDto.getId()));
+        statementBudget.checkSingleConnection(EndpointBudget.ITEM_UPDATE, () -> itemController.update(itemDto.getId(),
+                ItemDto.builder().name("Новое имя").build(), ownerDto.getId()));
     }
 
     private UserDto getUserDto(int count) {
@@ -146,6 +477,10 @@ class ItemControllerTest {
                 .build();
     }
 
+    private double searchCacheGets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "item-search").tag("result", result).counter().count();
+    }
+
     private ItemDto getItemDto(int count) {
         itemCount++;
         return ItemDto.builder()
@@ -0,0 +1,111 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.controller.BookingController;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.handler.GlobalExceptionHandler;
+import ru.practicum.shareit.user.controller.UserController;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = ShareItApp.class)
+@AutoConfigureTestDatabase
+@AutoConfigureObservability(tracing = false)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class MetricsTest {
+    @Autowired
+    private UserController userController;
+
+    @Autowired
+    private BookingController bookingController;
+
+    @Autowired
+    private GlobalExceptionHandler globalExceptionHandler;
+
+    @Autowired
+    private StatementMetricsFilter statementMetricsFilter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PrometheusMeterRegistry prometheusMeterRegistry;
+
+    @Test
+    void serviceCallsAreTimedWithBookingState() {
+        UserDto user = userController.create(UserDto.builder().name("User").email("user@mail.ru").build());
+
+        bookingController.findAllByBookerAndState(BookingState.WAITING, 10, null, user.getId());
+        assertThrows(NotFoundException.class, () -> userController.findById(user.getId() + 100));
+
+        assertEquals(1, meterRegistry.get(ServiceMetricsAspect.METRIC_NAME)
+                .tag("class", "BookingService")
+                .tag("method", "readByBookerAndState")
+                .tag("state", "WAITING")
+                .tag("exception", "none")
+                .timer().count());
+        assertEquals(1, meterRegistry.get(ServiceMetricsAspect.METRIC_NAME)
+                .tag("class", "UserService")
+                .tag("method", "getItemDto")
+                .tag("state", "none")
+                .tag("exception", "NotFoundException")
+                .timer().count());
+    }
+
+    @Test
+    void repositoryCallsAreTimedWithPercentileHistograms() {
+        userController.create(UserDto.builder().name("User").email("user@mail.ru").build());
+
+        assertTrue(meterRegistry.get("spring.data.repository.invocations")
+                .tag("repository", "UserRepository")
+                .timer().count() > 0);
+
+        String scrape = prometheusMeterRegistry.scrape();
+        assertTrue(scrape.contains("spring_data_repository_invocations_seconds_bucket"));
+        assertTrue(scrape.contains("shareit_service_seconds_bucket"));
+    }
+
+    @Test
+    void handledExceptionsAreCounted() {
+        globalExceptionHandler.handleNotFoundException(new NotFoundException("Не найдено"));
+
+        assertEquals(1, meterRegistry.get(GlobalExceptionHandler.EXCEPTIONS_METRIC)
+                .tag("exception", "NotFoundException")
+                .tag("status", "404")
+                .counter().count());
+    }
+
+    @Test
+    void statementsPerRequestAreRecorded() throws Exception {
+        UserDto user = userController.create(UserDto.builder().name("User").email("user@mail.ru").build());
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/bookings");
+
+        statementMetricsFilter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/bookings");
+            bookingController.findAllByBookerAndState(BookingState.ALL, 10, null, user.getId());
+        });
+
+        DistributionSummary statements = meterRegistry.get(StatementMetricsFilter.METRIC_NAME)
+                .tag("method", "GET")
+                .tag("uri", "/bookings")
+                .summary();
+        assertEquals(1, statements.count());
+        assertTrue(statements.totalAmount() >= 1);
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.support;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Бюджеты SQL-запросов endpoint'ов. Бюджет не зависит от размера результата:
+ * рост числа запросов вместе с числом строк — это N+1.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum EndpointBudget {
+    USER_BATCH_CREATE("POST /users/batch", 4),
+    USER_GET("GET /users/{id}", 1),
+    USER_GET_CACHED("GET /users/{id} из кэша", 0),
+    USER_LOOKUP("GET /users?ids=", 1),
+    ITEMS_OWNED("GET /items", 4),
+    ITEM_GET("GET /items/{id}", 1),
+    ITEM_GET_BY_OWNER("GET /items/{id} владельцем", 2),
+    ITEM_LOOKUP("GET /items?ids=", 1),
+    ITEM_UPDATE("PATCH /items/{id}", 2),
+    ITEM_SEARCH("GET /items/search", 0),
+    ITEM_SUGGEST("GET /items/suggest", 0),
+    ITEM_AVAILABILITY("GET /items/{id}/availability", 2),
+    ITEM_COMMENTS("GET /items/{id}/comment", 2),
+    BOOKING_GET("GET /bookings/{id}", 1),
+    BOOKINGS_BY_BOOKER("GET /bookings", 1),
+    BOOKINGS_BY_OWNER("GET /bookings/owner", 2);
+
+    private final String name;
+    private final int maxStatements;
+}
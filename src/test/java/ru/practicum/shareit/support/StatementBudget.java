@@ -0,0 +1,136 @@
+package ru.practicum.shareit.support;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import ru.practicum.shareit.metrics.StatementRecorder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Проверка бюджета SQL-запросов вызова endpoint. Запросы вместе с текстом записывает
+ * {@link StatementRecorder} в потоке теста; при превышении бюджета тест падает со списком выполненных запросов.
+ * Заодно считаются соединения, взятые из DataSource за время вызова.
+ * Подключается в тест через {@code @Import(StatementBudget.class)}.
+ */
+@TestComponent
+@Import(StatementBudget.ConnectionCounting.class)
+@RequiredArgsConstructor
+public class StatementBudget {
+    private static final ThreadLocal<int[]> connections = new ThreadLocal<>();
+
+    private final StatementRecorder statementRecorder;
+
+    public <T> T check(EndpointBudget endpoint, Supplier<T> call) {
+        return check(endpoint.getName(), endpoint.getMaxStatements(), call);
+    }
+
+    public void check(EndpointBudget endpoint, Runnable call) {
+        check(endpoint, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    public <T> T check(String name, int maxStatements, Supplier<T> call) {
+        Recorded<T> recorded = record(call);
+        if (recorded.statements().size() > maxStatements) {
+            fail(report(name, maxStatements, recorded.statements()));
+        }
+        return recorded.result();
+    }
+
+    // Бюджет запросов и ровно одно соединение на весь вызов
+    public <T> T checkSingleConnection(EndpointBudget endpoint, Supplier<T> call) {
+        Recorded<T> recorded = record(call);
+        if (recorded.statements().size() > endpoint.getMaxStatements()) {
+            fail(report(endpoint.getName(), endpoint.getMaxStatements(), recorded.statements()));
+        }
+        if (recorded.connections() != 1) {
+            fail(endpoint.getName() + ": " + recorded.connections() + " соединений вместо одного");
+        }
+        return recorded.result();
+    }
+
+    // Точный учёт без бюджета: тест сам сравнивает число запросов и соединений
+    public <T> Recorded<T> record(Supplier<T> call) {
+        if (statementRecorder.isRecording()) {
+            throw new IllegalStateException("Проверки бюджета запросов не вкладываются друг в друга");
+        }
+
+        statementRecorder.startWithSql();
+        connections.set(new int[1]);
+        T result;
+        List<String> statements;
+        int connectionCount;
+        try {
+            result = call.get();
+        } finally {
+            statements = statementRecorder.stop().sql();
+            connectionCount = connections.get()[0];
+            connections.remove();
+        }
+        return new Recorded<>(result, statements, connectionCount);
+    }
+
+    private static String report(String name, int maxStatements, List<String> statements) {
+        StringBuilder report = new StringBuilder()
+                .append(name).append(": ").append(statements.size())
+                .append(" SQL-запросов при бюджете ").append(maxStatements);
+        for (int i = 0; i < statements.size(); i++) {
+            report.append(System.lineSeparator()).append(i + 1).append(". ").append(statements.get(i));
+        }
+        return report.toString();
+    }
+
+    public record Recorded<T>(T result, List<String> statements, int connections) {
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class ConnectionCounting {
+        @Bean
+        static BeanPostProcessor connectionCountingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? new CountingDataSource(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    private static final class CountingDataSource extends DelegatingDataSource {
+        private CountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            count();
+            return super.getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            count();
+            return super.getConnection(username, password);
+        }
+
+        private static void count() {
+            int[] counter = connections.get();
+            if (counter != null) {
+                counter[0]++;
+            }
+        }
+    }
+}
@@ -5,12 +5,21 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.ShareItApp;
 import ru.practicum.shareit.exceptions.DuplicateException;
 import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.lookup.LookupResult;
+import ru.practicum.shareit.support.EndpointBudget;
+import ru.practicum.shareit.support.StatementBudget;
 import ru.practicum.shareit.user.controller.UserController;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+import java.util.stream.IntStream;
 
 import static org.hibernate.validator.internal.util.Contracts.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -19,6 +28,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest(classes = ShareItApp.class)
 @AutoConfigureTestDatabase
+@Import(StatementBudget.class)
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 @DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
 class UserControllerTest {
@@ -26,6 +36,12 @@ class UserControllerTest {
     @Autowired
     private UserController userController;
 
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StatementBudget statementBudget;
+
     @Test
     void userControllerCreatesCorrectUser() {
         UserDto userDto = getUserDto(userCount);
@@ -47,6 +63,63 @@ class UserControllerTest {
         assertTrue(thrown.getMessage().contains("Этот email уже используется"));
     }
 
+    @Test
+    void userControllerCreatesUserWithSingleInsert() {
+        // Пул идентификаторов инициализируется двумя обращениями к последовательности
+        userController.create(getUserDto(userCount));
+        userController.create(getUserDto(userCount));
+
+        UserDto userDto = getUserDto(userCount);
+        StatementBudget.Recorded<UserDto> created = statementBudget.record(() -> userController.create(userDto));
+        assertEquals(1, created.statements().size(), "Создание пользователя должно быть одним INSERT");
+    }
+
+    @Test
+    void userControllerTranslatesEmailConstraintViolation() {
+        // Запись в обход сервиса не попадает в индекс email, дубликат ловит ограничение базы
+        userRepository.save(User.builder().name("Direct").email("direct@mail.ru").build());
+
+        DuplicateException thrown = assertThrows(DuplicateException.class,
+                () -> userController.create(UserDto.builder().name("Other").email("direct@mail.ru").build()));
+        assertEquals("Этот email уже используется", thrown.getMessage());
+    }
+
+    @Test
+    void userControllerLooksUpUsersInRequestOrder() {
+        UserDto first = userController.create(getUserDto(userCount));
+        UserDto second = userController.create(getUserDto(userCount));
+
+        StatementBudget.Recorded<LookupResult<UserDto>> lookup = statementBudget.record(() ->
+                userController.findAllById(List.of(second.getId(), 9999L, first.getId(), second.getId())));
+        assertEquals(1, lookup.statements().size(), "Пакетный поиск должен быть одним запросом");
+
+        assertEquals(List.of(second, first), lookup.result().found());
+        assertEquals(List.of(9999L), lookup.result().missingIds());
+    }
+
+    @Test
+    void userControllerCreatesUsersInBatch() {
+        List<UserDto> userDtos = IntStream.range(0, 20)
+                .mapToObj(i -> getUserDto(userCount))
+                .toList();
+
+        // проверка email, до двух обращений к последовательности и один пакетный INSERT
+        List<UserDto> created = statementBudget.check(EndpointBudget.USER_BATCH_CREATE,
+                () -> userController.createAll(userDtos));
+
+        assertEquals(20, created.size());
+        created.forEach(user -> assertNotNull(user.getId()));
+        assertEquals(20, userRepository.count());
+    }
+
+    @Test
+    void userControllerDoesNotCreateBatchWithDuplicateEmail() {
+        UserDto userDto = getUserDto(userCount);
+        List<UserDto> userDtos = List.of(userDto, userDto);
+
+        assertThrows(DuplicateException.class, () -> userController.createAll(userDtos));
+    }
+
     @Test
     void userControllerGetsUserById() {
         UserDto userDto = getUserDto(userCount);
@@ -66,6 +139,21 @@ class UserControllerTest {
         assertEquals(userDto, updatedUser);
     }
 
+    @Test
+    void userControllerServesRepeatedReadsFromCacheAndSeesUpdates() {
+        UserDto userDto = userController.create(getUserDto(userCount));
+        userController.findById(userDto.getId());
+
+        statementBudget.check(EndpointBudget.USER_GET_CACHED, () -> userController.findById(userDto.getId()));
+
+        userController.update(userDto.getId(), UserDto.builder().name("Renamed").build());
+        assertEquals("Renamed", userController.findById(userDto.getId()).getName(), "Кэш вернул устаревшего пользователя");
+
+        userController.delete(userDto.getId());
+        Long deletedId = userDto.getId();
+        assertThrows(NotFoundException.class, () -> userController.findById(deletedId));
+    }
+
     @Test
     void userControllerUpdatesWithAbsentFields() {
         UserDto userDto = getUserDto(userCount);
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.CannotCreateTransactionException;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.handler.ErrorResponse;
+import ru.practicum.shareit.handler.GlobalExceptionHandler;
+import ru.practicum.shareit.user.controller.UserController;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Настоящий пул Hikari из профиля test: @AutoConfigureTestDatabase подменил бы его источником без пула
+@SpringBootTest(classes = ShareItApp.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:pool-timeout",
+        "spring.datasource.hikari.maximum-pool-size=1",
+        "spring.datasource.hikari.connection-timeout=250"})
+@ActiveProfiles("test")
+@DirtiesContext
+class ConnectionPoolTimeoutTest {
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private UserController userController;
+
+    @Autowired
+    private GlobalExceptionHandler globalExceptionHandler;
+
+    @Test
+    void exhaustedPoolIsReportedAsServiceUnavailable() throws SQLException {
+        CannotCreateTransactionException exception;
+        try (Connection ignored = dataSource.getConnection()) {
+            exception = assertThrows(CannotCreateTransactionException.class, () ->
+                    userController.create(UserDto.builder().name("User").email("user@mail.ru").build()));
+        }
+
+        ResponseEntity<ErrorResponse> response = globalExceptionHandler.handleCannotCreateTransaction(exception);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals(ConcurrencyLimitFilter.RETRY_AFTER_SECONDS, response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+}